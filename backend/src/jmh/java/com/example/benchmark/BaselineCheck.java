@@ -0,0 +1,89 @@
+package com.example.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// 对比本次 JMH 结果（-rf json）和仓库中的基线，任何一项变慢超过阈值时以非 0 退出。
+// 比较的是置信区间（score +- scoreError）而不是平均值：只有本次区间的下界
+// 比基线区间的上界还慢超过阈值才算变慢，误差范围内的波动不报告。
+// 用法：BaselineCheck <基线.json> <结果.json> [允许变慢的比例，默认 0.1]
+public final class BaselineCheck {
+
+    private BaselineCheck() {
+    }
+
+    // 主指标及其 99.9% 置信区间的半宽
+    private record Score(double score, double error) {
+        double low() {
+            return score - error;
+        }
+
+        double high() {
+            return score + error;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: BaselineCheck <baseline.json> <result.json> [tolerance]");
+            System.exit(2);
+        }
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 0.1;
+        Map<String, Score> baseline = read(new File(args[0]));
+        Map<String, Score> current = read(new File(args[1]));
+
+        int regressions = 0;
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score before = baseline.get(entry.getKey());
+            Score after = entry.getValue();
+            if (before == null) {
+                System.out.printf("NEW        %s %.3f +- %.3f%n", entry.getKey(), after.score(), after.error());
+                continue;
+            }
+            // 所有基准都是 AverageTime，数值越大越慢
+            double change = after.score() / before.score() - 1;
+            boolean regressed = after.low() > before.high() * (1 + tolerance);
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-10s %s %.3f +- %.3f -> %.3f +- %.3f (%+.1f%%)%n",
+                    regressed ? "REGRESSED" : "OK", entry.getKey(),
+                    before.score(), before.error(), after.score(), after.error(), change * 100);
+        }
+        if (regressions > 0) {
+            System.out.println(regressions + " benchmark(s) slower than baseline by more than " + (int) (tolerance * 100)
+                    + "% beyond the error margins");
+            System.exit(1);
+        }
+    }
+
+    // 基准名 + 参数 -> 主指标；-prof gc 的分配率等次要指标只用于人工查看。
+    // 只有一次测量迭代时 JMH 给出的 scoreError 是 NaN，按 0 处理
+    private static Map<String, Score> read(File file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(result.get("benchmark").asText());
+            JsonNode params = result.get("params");
+            if (params != null) {
+                key.append(params.size() > 0 ? " " : "");
+                for (Iterator<Map.Entry<String, JsonNode>> it = params.fields(); it.hasNext(); ) {
+                    Map.Entry<String, JsonNode> param = it.next();
+                    key.append(param.getKey()).append('=').append(param.getValue().asText());
+                    if (it.hasNext()) {
+                        key.append(',');
+                    }
+                }
+            }
+            JsonNode metric = result.get("primaryMetric");
+            double error = metric.path("scoreError").asDouble(0);
+            scores.put(key.toString(), new Score(metric.get("score").asDouble(), Double.isNaN(error) ? 0 : error));
+        }
+        return scores;
+    }
+}
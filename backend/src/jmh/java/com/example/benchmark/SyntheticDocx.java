@@ -0,0 +1,144 @@
+package com.example.benchmark;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.util.Units;
+import org.apache.poi.xwpf.usermodel.Document;
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFStyle;
+import org.apache.poi.xwpf.usermodel.XWPFStyles;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTRPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTStyle;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STJc;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STStyleType;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+// 基准测试用的合成 docx：N 个段落、每段 M 个 run，格式直接设置在 run 上或从样式继承，可附带图片。
+// 每 10 个段落有一个使用错误字体和字号，保证规则有错误可报
+public final class SyntheticDocx {
+
+    public enum Formatting { DIRECT, INHERITED }
+
+    static final String[] SECTIONS = {
+            "СПИСОК СОКРАЩЕНИЙ И УСЛОВНЫХ ОБОЗНАЧЕНИЙ",
+            "ТЕРМИНЫ И ОПРЕДЕЛЕНИЯ",
+            "ВВЕДЕНИЕ",
+            "ЗАКЛЮЧЕНИЕ",
+            "СПИСОК ИСПОЛЬЗОВАННЫХ ИСТОЧНИКОВ",
+            "ПРИЛОЖЕНИЕ"
+    };
+
+    private static final int IMAGE_BYTES = 256 * 1024;
+
+    private SyntheticDocx() {
+    }
+
+    public static Path write(int paragraphs, int runsPerParagraph, Formatting formatting, int images) throws IOException {
+        Path file = Files.createTempFile("synthetic-", ".docx");
+        file.toFile().deleteOnExit();
+        try (XWPFDocument doc = create(paragraphs, runsPerParagraph, formatting, images);
+             OutputStream out = Files.newOutputStream(file)) {
+            doc.write(out);
+        }
+        return file;
+    }
+
+    public static XWPFDocument create(int paragraphs, int runsPerParagraph, Formatting formatting, int images) throws IOException {
+        XWPFDocument doc = new XWPFDocument();
+        if (formatting == Formatting.INHERITED) {
+            addStyles(doc);
+        }
+        Random random = new Random(42);
+        int perSection = Math.max(1, paragraphs / SECTIONS.length);
+        int imageEvery = images > 0 ? Math.max(1, paragraphs / images) : Integer.MAX_VALUE;
+        int addedImages = 0;
+
+        for (int i = 0; i < paragraphs; i++) {
+            if (i % perSection == 0 && i / perSection < SECTIONS.length) {
+                heading(doc, SECTIONS[i / perSection], formatting);
+            }
+            boolean wrong = i % 10 == 9;
+            XWPFParagraph paragraph = doc.createParagraph();
+            if (formatting == Formatting.INHERITED) {
+                paragraph.setStyle(wrong ? "BenchBodyWrong" : "BenchBody");
+            }
+            for (int r = 0; r < runsPerParagraph; r++) {
+                XWPFRun run = paragraph.createRun();
+                if (formatting == Formatting.DIRECT) {
+                    run.setFontFamily(wrong ? "Arial" : "Times New Roman");
+                    run.setFontSize(wrong ? 10 : 14);
+                }
+                run.setText("Абзац " + i + ", фрагмент " + r + " основного текста работы. ");
+            }
+            if (addedImages < images && i % imageEvery == imageEvery - 1) {
+                byte[] picture = new byte[IMAGE_BYTES];
+                random.nextBytes(picture);
+                try {
+                    paragraph.createRun().addPicture(new ByteArrayInputStream(picture), Document.PICTURE_TYPE_PNG,
+                            "figure" + addedImages + ".png", Units.toEMU(200), Units.toEMU(150));
+                } catch (InvalidFormatException e) {
+                    throw new IOException(e);
+                }
+                addedImages++;
+            }
+        }
+        return doc;
+    }
+
+    private static void heading(XWPFDocument doc, String text, Formatting formatting) {
+        XWPFParagraph heading = doc.createParagraph();
+        XWPFRun run = heading.createRun();
+        if (formatting == Formatting.DIRECT) {
+            heading.setAlignment(ParagraphAlignment.LEFT);
+            run.setBold(true);
+            run.setFontFamily("Times New Roman");
+            run.setFontSize(14);
+        } else {
+            heading.setStyle("BenchHeading");
+        }
+        run.setText(text);
+    }
+
+    // BenchHeading -> BenchBody -> BenchBase 的继承链，BenchBodyWrong 覆盖字体和字号
+    private static void addStyles(XWPFDocument doc) {
+        XWPFStyles styles = doc.createStyles();
+
+        CTStyle base = paragraphStyle("BenchBase", null);
+        CTRPr baseRPr = base.addNewRPr();
+        baseRPr.addNewRFonts().setAscii("Times New Roman");
+        baseRPr.addNewSz().setVal(BigInteger.valueOf(28));
+        styles.addStyle(new XWPFStyle(base));
+
+        styles.addStyle(new XWPFStyle(paragraphStyle("BenchBody", "BenchBase")));
+
+        CTStyle wrong = paragraphStyle("BenchBodyWrong", "BenchBody");
+        CTRPr wrongRPr = wrong.addNewRPr();
+        wrongRPr.addNewRFonts().setAscii("Arial");
+        wrongRPr.addNewSz().setVal(BigInteger.valueOf(20));
+        styles.addStyle(new XWPFStyle(wrong));
+
+        CTStyle heading = paragraphStyle("BenchHeading", "BenchBody");
+        heading.addNewRPr().addNewB();
+        heading.addNewPPr().addNewJc().setVal(STJc.LEFT);
+        styles.addStyle(new XWPFStyle(heading));
+    }
+
+    private static CTStyle paragraphStyle(String id, String basedOn) {
+        CTStyle style = CTStyle.Factory.newInstance();
+        style.setStyleId(id);
+        style.setType(STStyleType.PARAGRAPH);
+        if (basedOn != null) {
+            style.addNewBasedOn().setVal(basedOn);
+        }
+        return style;
+    }
+}
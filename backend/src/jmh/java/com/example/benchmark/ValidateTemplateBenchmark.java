@@ -0,0 +1,85 @@
+package com.example.benchmark;
+
+import com.example.service.IncrementalValidationStore;
+import com.example.service.ParallelValidation;
+import com.example.service.ParseLimiter;
+import com.example.service.TemplateValidatorService;
+import com.example.service.UploadGuard;
+import com.example.service.ValidationOptions;
+import com.example.service.ValidationMetrics;
+import com.example.service.ValidationResultCache;
+import com.example.service.rules.FontRule;
+import com.example.service.rules.FontSizeRule;
+import com.example.service.rules.RuleDispatcher;
+import com.example.service.rules.RuleProfiles;
+import com.example.service.rules.SectionHeadingRule;
+import com.example.tools.ValidationResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 端到端：从磁盘上的 docx 到 ValidationResponse。关闭结果缓存和增量快照，每次都真正解析
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ValidateTemplateBenchmark {
+
+    @Param({"200", "2000"})
+    public int paragraphs;
+
+    @Param({"4"})
+    public int runsPerParagraph;
+
+    @Param({"DIRECT", "INHERITED"})
+    public SyntheticDocx.Formatting formatting;
+
+    @Param({"0", "20"})
+    public int images;
+
+    @Param({"false", "true"})
+    public boolean streaming;
+
+    private TemplateValidatorService service;
+    private FileSystemResource document;
+    private ValidationOptions options;
+
+    @Setup
+    public void setup() throws IOException {
+        Path file = SyntheticDocx.write(paragraphs, runsPerParagraph, formatting, images);
+        document = new FileSystemResource(file);
+        options = new ValidationOptions(streaming, null);
+        service = service();
+    }
+
+    static TemplateValidatorService service() throws IOException {
+        return new TemplateValidatorService(
+                new RuleDispatcher(List.of(new FontRule(), new FontSizeRule(), new SectionHeadingRule())),
+                new ValidationResultCache(DataSize.ofBytes(0), Duration.ofMinutes(1)),
+                new IncrementalValidationStore(1, DataSize.ofMegabytes(1)),
+                new ParseLimiter(0),
+                new UploadGuard(10000, 100, DataSize.ofMegabytes(512), DataSize.ofMegabytes(32),
+                        DataSize.ofGigabytes(1), Duration.ofSeconds(2)),
+                new ValidationMetrics(new SimpleMeterRegistry()),
+                new ParallelValidation(0, 256),
+                new RuleProfiles("", "default", Duration.ZERO));
+    }
+
+    @Benchmark
+    public ValidationResponse validateTemplate() throws IOException {
+        return service.validateTemplate(document, options);
+    }
+}
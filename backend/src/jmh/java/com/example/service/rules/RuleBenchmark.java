@@ -0,0 +1,123 @@
+package com.example.service.rules;
+
+import com.example.benchmark.SyntheticDocx;
+import com.example.service.ValidationContext;
+import com.example.service.docx.DocxParagraph;
+import com.example.service.docx.DocxReader;
+import com.example.service.docx.ResolvedStyleCache;
+import com.example.service.docx.XwpfDocxReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 单条规则和样式解析的开销：段落事先读入内存，只测规则本身，不含解析
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RuleBenchmark {
+
+    @Param({"1000"})
+    public int paragraphs;
+
+    @Param({"4"})
+    public int runsPerParagraph;
+
+    @Param({"DIRECT", "INHERITED"})
+    public SyntheticDocx.Formatting formatting;
+
+    private final SectionHeadingRule sectionHeadingRule = new SectionHeadingRule();
+    private RuleDispatcher fontDispatcher;
+    private RuleDispatcher fontSizeDispatcher;
+    private RuleDispatcher sectionHeadingDispatcher;
+    private ResolvedStyleCache styles;
+    private List<DocxParagraph> loaded;
+
+    @Setup
+    public void setup() throws IOException {
+        Path file = SyntheticDocx.write(paragraphs, runsPerParagraph, formatting, 0);
+        loaded = new ArrayList<>();
+        try (XwpfDocxReader reader = XwpfDocxReader.open(file)) {
+            styles = reader.styles();
+            for (DocxParagraph p = reader.next(); p != null; p = reader.next()) {
+                loaded.add(p);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        fontDispatcher = new RuleDispatcher(List.of(new FontRule()));
+        fontSizeDispatcher = new RuleDispatcher(List.of(new FontSizeRule()));
+        sectionHeadingDispatcher = new RuleDispatcher(List.of(sectionHeadingRule));
+    }
+
+    @Benchmark
+    public ValidationContext checkFont() throws IOException {
+        return run(fontDispatcher);
+    }
+
+    @Benchmark
+    public ValidationContext checkFontSize() throws IOException {
+        return run(fontSizeDispatcher);
+    }
+
+    @Benchmark
+    public ValidationContext checkBoldText() throws IOException {
+        return run(sectionHeadingDispatcher);
+    }
+
+    @Benchmark
+    public void isParagraphBold(Blackhole blackhole) {
+        for (DocxParagraph paragraph : loaded) {
+            blackhole.consume(sectionHeadingRule.isParagraphBold(paragraph, styles));
+        }
+    }
+
+    @Benchmark
+    public void getEffectiveAlignment(Blackhole blackhole) {
+        for (DocxParagraph paragraph : loaded) {
+            blackhole.consume(sectionHeadingRule.getEffectiveAlignment(paragraph, styles));
+        }
+    }
+
+    private ValidationContext run(RuleDispatcher dispatcher) throws IOException {
+        ValidationContext context = new ValidationContext();
+        dispatcher.dispatch(new ListReader(), context);
+        return context;
+    }
+
+    // 直接从内存列表中返回段落
+    private final class ListReader implements DocxReader {
+        private int next;
+
+        @Override
+        public ResolvedStyleCache styles() {
+            return styles;
+        }
+
+        @Override
+        public int paragraphCount() {
+            return loaded.size();
+        }
+
+        @Override
+        public DocxParagraph next() {
+            return next < loaded.size() ? loaded.get(next++) : null;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
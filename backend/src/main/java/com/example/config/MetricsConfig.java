@@ -0,0 +1,87 @@
+package com.example.config;
+
+import com.example.service.ParseLimiter;
+import com.example.service.UploadGuard;
+import com.example.service.ValidationBatchService;
+import com.example.service.ValidationJobService;
+import com.example.service.ValidationMetrics;
+import com.example.service.ValidationResultCache;
+import com.example.tools.CompactValidationResponse;
+import com.example.tools.ValidationResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+@Configuration
+public class MetricsConfig {
+
+    // 替换默认的 Jackson 转换器，记录 ValidationResponse（包括紧凑格式）序列化并写出的耗时
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+                                                                                   ValidationMetrics metrics) {
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+                if (!(object instanceof ValidationResponse || object instanceof CompactValidationResponse)) {
+                    super.writeInternal(object, type, outputMessage);
+                    return;
+                }
+                long start = System.nanoTime();
+                try {
+                    super.writeInternal(object, type, outputMessage);
+                } finally {
+                    metrics.recordSerialization(System.nanoTime() - start);
+                }
+            }
+        };
+    }
+
+    // 缓存、排队和预算的当前状态
+    @Bean
+    public MeterBinder validatorGauges(ValidationResultCache cache, ParseLimiter parseLimiter,
+                                       ValidationJobService jobService, UploadGuard uploadGuard,
+                                       ValidationBatchService batchService) {
+        return registry -> {
+            Gauge.builder("validator.cache.entries", cache, ValidationResultCache::size)
+                    .description("Число результатов в кэше")
+                    .register(registry);
+            Gauge.builder("validator.cache.weight", cache, ValidationResultCache::weight)
+                    .description("Оценочный размер кэша")
+                    .baseUnit("bytes")
+                    .register(registry);
+            FunctionCounter.builder("validator.cache.requests", cache, ValidationResultCache::getHitCount)
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("validator.cache.requests", cache, ValidationResultCache::getMissCount)
+                    .tag("result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("validator.cache.evictions", cache, ValidationResultCache::getEvictionCount)
+                    .register(registry);
+
+            Gauge.builder("validator.parse.waiting", parseLimiter, ParseLimiter::getQueueLength)
+                    .description("Потоки, ожидающие разрешения на разбор")
+                    .register(registry);
+            for (ValidationJobService.Status status : new ValidationJobService.Status[]{
+                    ValidationJobService.Status.QUEUED, ValidationJobService.Status.RUNNING}) {
+                Gauge.builder("validator.jobs", jobService, jobs -> jobs.count(status))
+                        .description("Асинхронные задания по статусу")
+                        .tag("status", status.name().toLowerCase())
+                        .register(registry);
+            }
+            Gauge.builder("validator.upload.budget.available", uploadGuard, guard -> guard.getAvailableKb() * 1024.0)
+                    .baseUnit("bytes")
+                    .register(registry);
+            Gauge.builder("validator.batch.budget.available", batchService, batch -> batch.getAvailableKb() * 1024.0)
+                    .baseUnit("bytes")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.config;
+
+import jakarta.annotation.PostConstruct;
+import org.apache.poi.openxml4j.util.ZipSecureFile;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+// POI 打开 docx 时（XWPFDocument 和流式读取）解压过程中的 zip 炸弹限制。
+// ZipSecureFile 的限制是整个进程共享的静态设置，只在这里按配置设置一次，
+// 与 UploadGuard 按中央目录检查时使用同样的数值
+@Configuration
+public class PoiZipSecurityConfig {
+
+    private final int maxCompressionRatio;
+    private final DataSize maxXmlSize;
+
+    public PoiZipSecurityConfig(@Value("${validator.upload.max-compression-ratio:100}") int maxCompressionRatio,
+                                @Value("${validator.upload.max-xml-size:512MB}") DataSize maxXmlSize) {
+        this.maxCompressionRatio = maxCompressionRatio;
+        this.maxXmlSize = maxXmlSize;
+    }
+
+    @PostConstruct
+    public void configure() {
+        ZipSecureFile.setMinInflateRatio(1.0 / maxCompressionRatio);
+        ZipSecureFile.setMaxEntrySize(maxXmlSize.toBytes());
+    }
+}
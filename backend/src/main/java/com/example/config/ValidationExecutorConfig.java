@@ -0,0 +1,46 @@
+package com.example.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+// 异步校验任务的执行器。spring.threads.virtual.enabled=true 且运行在 Java 21+ 时，
+// Tomcat 请求线程（由 Spring Boot 自动配置）和校验任务都跑在虚拟线程上；否则使用固定大小的平台线程池
+@Configuration
+public class ValidationExecutorConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ValidationExecutorConfig.class);
+
+    @Bean
+    public AsyncTaskExecutor validationJobExecutor(Environment environment,
+                                                   @Value("${validator.jobs.threads:0}") int threads) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            // 每个任务一个虚拟线程，解析阶段的并发由 ParseLimiter 控制
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("validation-job-");
+            executor.setVirtualThreads(true);
+            log.info("Validation jobs run on virtual threads");
+            return executor;
+        }
+        if (environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+            log.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads, using platform threads",
+                    Runtime.version().feature());
+        }
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        // 排队长度由 ValidationJobService 的 queue-capacity 控制，这里不再限制
+        executor.setQueueCapacity(Integer.MAX_VALUE);
+        executor.setThreadNamePrefix("validation-job-");
+        executor.setDaemon(true);
+        return executor;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.controller;
+
+import com.example.service.rules.RuleProfile;
+import com.example.service.rules.RuleProfiles;
+import com.example.tools.RuleProfileInfo;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/rules")
+public class RuleProfileController {
+
+    private final RuleProfiles ruleProfiles;
+
+    public RuleProfileController(RuleProfiles ruleProfiles) {
+        this.ruleProfiles = ruleProfiles;
+    }
+
+    // 可用的规则集，校验时通过参数 profile 选择
+    @GetMapping("/profiles")
+    public List<RuleProfileInfo> profiles() {
+        return info(ruleProfiles.all());
+    }
+
+    // 立即重新加载 validator.rules.dir 中的配置；配置不合法时返回 422，原来的配置继续生效
+    @PostMapping("/reload")
+    public List<RuleProfileInfo> reload() throws IOException {
+        try {
+            return info(ruleProfiles.reload());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, e.getMessage());
+        }
+    }
+
+    private static List<RuleProfileInfo> info(Collection<RuleProfile> profiles) {
+        return profiles.stream()
+                .sorted(Comparator.comparing(RuleProfile::getName))
+                .map(profile -> new RuleProfileInfo(profile.getName(), profile.getVersion(), profile.getDescription()))
+                .toList();
+    }
+}
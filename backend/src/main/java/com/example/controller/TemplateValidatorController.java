@@ -1,17 +1,27 @@
 package com.example.controller;
 
+import com.example.service.CompactResponses;
 import com.example.service.TemplateValidatorService;
+import com.example.service.ValidationBatchService;
+import com.example.service.ValidationOptions;
+import com.example.tools.CompactValidationResponse;
 import com.example.tools.ValidationMessage;
 import com.example.tools.ValidationResponse;
 import com.example.tools.ValidationStats;
 import org.apache.poi.xwpf.usermodel.*;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.util.*;
@@ -21,14 +31,58 @@ import java.util.*;
 public class TemplateValidatorController {
 
     private final TemplateValidatorService templateValidatorService;
+    private final ValidationBatchService validationBatchService;
 
-    public TemplateValidatorController(TemplateValidatorService templateValidatorService) {
+    public TemplateValidatorController(TemplateValidatorService templateValidatorService,
+                                       ValidationBatchService validationBatchService) {
         this.templateValidatorService = templateValidatorService;
+        this.validationBatchService = validationBatchService;
     }
 
+    // 参数 streaming、lineage、maxErrors、maxErrorsPerCode、failFast、parallel、profile 绑定到 ValidationOptions；
+    // 只有客户端传了 lineage（同一文档的稳定标识）时才做增量校验，文件名不作为默认值，不同学生的同名文件不会互相覆盖
     @PostMapping
-    public ValidationResponse validateDocx(@RequestParam("file") MultipartFile file) throws IOException {
-        return templateValidatorService.validateTemplate(file);
+    public ValidationResponse validateDocx(@RequestParam("file") MultipartFile file,
+                                           @ModelAttribute ValidationOptions options) throws IOException {
+        return templateValidatorService.validateTemplate(file, options);
+    }
+
+    // format=compact：消息模板字典 + 段落序号和截断的片段，只返回第一页
+    // （结果没有留在缓存中时一次返回全部消息，不带 nextCursor）；
+    // 请求头 Accept: application/cbor 时以 CBOR 编码返回
+    @PostMapping(params = "format=compact")
+    public CompactValidationResponse validateDocxCompact(@RequestParam("file") MultipartFile file,
+                                                         @ModelAttribute ValidationOptions options,
+                                                         @RequestParam(defaultValue = "" + CompactResponses.DEFAULT_PAGE_SIZE) int limit) throws IOException {
+        TemplateValidatorService.Result result = templateValidatorService.validateWithId(file, options);
+        return CompactResponses.firstPage(result, limit);
     }
-}
 
+    // 紧凑格式的后续页，after 为上一页的 nextCursor；结果只保存在缓存中，过期后需要重新上传
+    @GetMapping("/results/{resultId}/messages")
+    public CompactValidationResponse messages(@PathVariable String resultId,
+                                              @RequestParam(required = false) String after,
+                                              @RequestParam(defaultValue = "" + CompactResponses.DEFAULT_PAGE_SIZE) int limit) {
+        ValidationResponse response = templateValidatorService.findResult(resultId);
+        if (response == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Результат не найден или устарел, загрузите документ снова.");
+        }
+        return CompactResponses.page(resultId, response, after, limit);
+    }
+
+    // 批量校验：files 可以是多个 docx，也可以是包含 docx 的 zip；
+    // 按完成顺序逐行返回 NDJSON，最后一行是汇总
+    @PostMapping(value = "/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> validateBatch(@RequestParam("files") List<MultipartFile> files,
+                                                               @ModelAttribute ValidationOptions options) throws IOException {
+        List<ValidationBatchService.Upload> uploads = validationBatchService.spool(files);
+        StreamingResponseBody body = out -> {
+            try {
+                validationBatchService.validate(uploads, options, out);
+            } finally {
+                validationBatchService.delete(uploads);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.controller;
+
+import com.example.service.ValidationJobService;
+import com.example.service.ValidationOptions;
+import com.example.tools.ValidationJobStatus;
+import com.example.tools.ValidationResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/validate/docx/jobs")
+public class ValidationJobController {
+
+    private final ValidationJobService validationJobService;
+
+    public ValidationJobController(ValidationJobService validationJobService) {
+        this.validationJobService = validationJobService;
+    }
+
+    // 立即返回 jobId，校验在后台进行
+    @PostMapping
+    public ResponseEntity<ValidationJobStatus> submit(@RequestParam("file") MultipartFile file,
+                                                      @ModelAttribute ValidationOptions options) throws IOException {
+        ValidationJobStatus status = validationJobService.submit(file, options);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/validate/docx/jobs/" + status.getJobId()))
+                .body(status);
+    }
+
+    @GetMapping("/{jobId}")
+    public ValidationJobStatus status(@PathVariable String jobId) {
+        return validationJobService.status(jobId);
+    }
+
+    // SSE：处理过程中发送 progress 事件，结束时发送 done 事件
+    @GetMapping(value = "/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@PathVariable String jobId) {
+        return validationJobService.subscribe(jobId);
+    }
+
+    // 完成后返回结果；未完成返回 202 和当前进度；失败返回 422
+    @GetMapping("/{jobId}/result")
+    public ResponseEntity<?> result(@PathVariable String jobId) {
+        ValidationJobStatus status = validationJobService.status(jobId);
+        ValidationResponse result = validationJobService.result(jobId);
+        if (result != null) {
+            return ResponseEntity.ok(result);
+        }
+        if (ValidationJobService.Status.FAILED.name().equals(status.getStatus())) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(status);
+        }
+        return ResponseEntity.accepted().body(status);
+    }
+}
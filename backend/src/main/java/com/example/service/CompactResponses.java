@@ -0,0 +1,106 @@
+package com.example.service;
+
+import com.example.tools.CompactMessage;
+import com.example.tools.CompactValidationResponse;
+import com.example.tools.MessageTemplate;
+import com.example.tools.ValidationMessage;
+import com.example.tools.ValidationResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// 把完整的 ValidationResponse 转成紧凑的分页格式：
+// code、message、suggestion 相同的消息合并为一个模板，content 截断为片段；
+// 游标是下一页第一条消息的下标，模板 id 按第一次出现的顺序分配，各页之间保持一致
+public final class CompactResponses {
+
+    public static final int DEFAULT_PAGE_SIZE = 200;
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int SNIPPET_LENGTH = 80;
+
+    private record TemplateKey(String code, String message, String suggestion) {
+    }
+
+    private CompactResponses() {
+    }
+
+    // 新校验结果的第一页；结果太大或缓存关闭而没有留在缓存中时，之后无法按 nextCursor 翻页，
+    // 这时一次返回全部消息，不带 nextCursor
+    public static CompactValidationResponse firstPage(TemplateValidatorService.Result result, int limit) {
+        int size = result.retained() ? clamp(limit) : Math.max(1, result.response().getMessages().size());
+        return slice(result.id(), result.response(), null, size);
+    }
+
+    // after 为 null 时返回第一页，并附带完整的模板字典
+    public static CompactValidationResponse page(String resultId, ValidationResponse response, String after, int limit) {
+        return slice(resultId, response, after, clamp(limit));
+    }
+
+    private static int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    private static CompactValidationResponse slice(String resultId, ValidationResponse response, String after, int size) {
+        List<ValidationMessage> messages = response.getMessages();
+        int from = parseCursor(after, messages.size());
+        int to = Math.min(messages.size(), from + size);
+
+        // 第一页要带上整个结果的字典；后续页只需扫描到本页末尾就能得到一致的模板 id
+        int scanTo = after == null ? messages.size() : to;
+        Map<TemplateKey, Integer> ids = new HashMap<>();
+        List<MessageTemplate> templates = new ArrayList<>();
+        List<CompactMessage> page = new ArrayList<>(to - from);
+        for (int i = 0; i < scanTo; i++) {
+            ValidationMessage message = messages.get(i);
+            TemplateKey key = new TemplateKey(message.getCode(), message.getMessage(), message.getSuggestion());
+            Integer id = ids.get(key);
+            if (id == null) {
+                id = templates.size();
+                ids.put(key, id);
+                templates.add(new MessageTemplate(id, key.code(), key.message(), key.suggestion()));
+            }
+            if (i >= from && i < to) {
+                page.add(new CompactMessage(id, message.getParagraph(), snippet(message.getContent())));
+            }
+        }
+
+        return new CompactValidationResponse(
+                resultId,
+                after == null ? templates : null,
+                page,
+                response.getStats(),
+                messages.size(),
+                to < messages.size() ? String.valueOf(to) : null);
+    }
+
+    static String snippet(String content) {
+        if (content == null || content.length() <= SNIPPET_LENGTH) {
+            return content;
+        }
+        int end = SNIPPET_LENGTH;
+        // 不要把代理对截成两半
+        if (Character.isHighSurrogate(content.charAt(end - 1))) {
+            end--;
+        }
+        return content.substring(0, end) + "…";
+    }
+
+    private static int parseCursor(String after, int size) {
+        if (after == null) {
+            return 0;
+        }
+        try {
+            int cursor = Integer.parseInt(after);
+            if (cursor >= 0 && cursor <= size) {
+                return cursor;
+            }
+        } catch (NumberFormatException ignored) {
+            // 落到下面统一报错
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Неверный курсор: " + after);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// 按文档系列（lineage，由客户端显式传入）保存最近一次的段落快照。
+// LRU，同时限制快照个数和估算的总字节数；单个快照超过总预算时不保存。
+// 快照的内容只取决于段落指纹和规则集，所以即使不同文档共用一个 lineage 结果也正确
+@Component
+public class IncrementalValidationStore {
+
+    private final int maxDocuments;
+    private final long maxWeight;
+    private final LinkedHashMap<String, ParagraphSnapshot> snapshots = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+
+    public IncrementalValidationStore(@Value("${validator.incremental.max-documents:256}") int maxDocuments,
+                                      @Value("${validator.incremental.max-size:64MB}") DataSize maxSize) {
+        this.maxDocuments = maxDocuments;
+        this.maxWeight = maxSize.toBytes();
+    }
+
+    public synchronized ParagraphSnapshot get(String lineage, String ruleSetVersion) {
+        if (lineage == null) return null;
+        ParagraphSnapshot snapshot = snapshots.get(lineage);
+        return snapshot != null && snapshot.getRuleSetVersion().equals(ruleSetVersion) ? snapshot : null;
+    }
+
+    public synchronized void put(String lineage, ParagraphSnapshot snapshot) {
+        if (lineage == null) return;
+        ParagraphSnapshot previous = snapshots.remove(lineage);
+        if (previous != null) {
+            weight -= previous.getWeight();
+        }
+        if (snapshot.getWeight() > maxWeight) return;
+
+        snapshots.put(lineage, snapshot);
+        weight += snapshot.getWeight();
+        Iterator<ParagraphSnapshot> eldest = snapshots.values().iterator();
+        while (snapshots.size() > maxDocuments || weight > maxWeight) {
+            weight -= eldest.next().getWeight();
+            eldest.remove();
+        }
+    }
+
+    synchronized int size() {
+        return snapshots.size();
+    }
+
+    synchronized long weight() {
+        return weight;
+    }
+}
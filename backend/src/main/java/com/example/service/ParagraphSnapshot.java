@@ -0,0 +1,60 @@
+package com.example.service;
+
+import com.example.tools.ValidationMessage;
+
+import java.util.List;
+import java.util.Map;
+
+// 一次校验中每个段落（按指纹）产生的错误，供下一次上传复用
+public final class ParagraphSnapshot {
+
+    // 段落产生的错误及其去重 key，两个列表一一对应
+    public record Outcome(List<String> errorKeys, List<ValidationMessage> messages) {
+
+        public static final Outcome EMPTY = new Outcome(List.of(), List.of());
+    }
+
+    private final String ruleSetVersion;
+    private final Map<Long, Outcome> outcomes;
+    private final long weight;
+
+    public ParagraphSnapshot(String ruleSetVersion, Map<Long, Outcome> outcomes) {
+        this.ruleSetVersion = ruleSetVersion;
+        this.outcomes = outcomes;
+        this.weight = estimateWeight(outcomes);
+    }
+
+    // 估算占用的内存字节数：每个段落一个 Map 条目，每条错误按 key 和消息文本的长度计算
+    private static long estimateWeight(Map<Long, Outcome> outcomes) {
+        long weight = 64;
+        for (Outcome outcome : outcomes.values()) {
+            weight += 64;
+            for (int i = 0; i < outcome.messages().size(); i++) {
+                ValidationMessage message = outcome.messages().get(i);
+                weight += 96 + 2L * (outcome.errorKeys().get(i).length() + length(message.getMessage())
+                        + length(message.getSuggestion()) + length(message.getContent()));
+            }
+        }
+        return weight;
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    public long getWeight() {
+        return weight;
+    }
+
+    public String getRuleSetVersion() {
+        return ruleSetVersion;
+    }
+
+    public Outcome get(long fingerprint) {
+        return outcomes.get(fingerprint);
+    }
+
+    public int size() {
+        return outcomes.size();
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ForkJoinPool;
+
+// 单个大文档按段落块并行校验（ValidationOptions.parallel）使用的 ForkJoinPool。
+// 一个文档仍只占一个解析许可，但可以用满所有核
+@Component
+public class ParallelValidation {
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    public ParallelValidation(@Value("${validator.parallel.threads:0}") int threads,
+                              @Value("${validator.parallel.chunk-size:256}") int chunkSize) {
+        this.pool = new ForkJoinPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
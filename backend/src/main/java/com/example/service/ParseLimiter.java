@@ -0,0 +1,50 @@
+package com.example.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Semaphore;
+
+// 限制同时进行 POI 解析的数量：解析阶段吃 CPU 和堆，
+// 虚拟线程下请求可以远多于 CPU 核数，上传和读文件的 I/O 等待不占许可，只有解析阶段排队
+@Component
+public class ParseLimiter {
+
+    public interface ParseTask<T> {
+        T run() throws IOException;
+    }
+
+    private final int maxConcurrent;
+    private final Semaphore permits;
+
+    public ParseLimiter(@Value("${validator.parse.max-concurrent:0}") int maxConcurrent) {
+        this.maxConcurrent = maxConcurrent > 0 ? maxConcurrent : Runtime.getRuntime().availableProcessors();
+        // 公平模式，突发流量下按到达顺序解析
+        this.permits = new Semaphore(this.maxConcurrent, true);
+    }
+
+    public <T> T run(ParseTask<T> task) throws IOException {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Ожидание разбора документа прервано");
+        }
+        try {
+            return task.run();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    // 正在排队等待解析的线程数（近似值）
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.service;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+// 待校验文档在磁盘上的位置，读取器按需随机访问 zip 条目而不是把整个包读进内存。
+// FileSystemResource 直接使用原文件；MultipartFile 用 transferTo 移到临时文件
+// （multipart 已落盘时只是重命名）；其他来源复制到临时文件。临时文件在 close 时删除
+final class SpooledDocument implements Closeable {
+
+    private final Path path;
+    private final boolean temporary;
+
+    private SpooledDocument(Path path, boolean temporary) {
+        this.path = path;
+        this.temporary = temporary;
+    }
+
+    static SpooledDocument of(InputStreamSource source) throws IOException {
+        if (source instanceof FileSystemResource resource) {
+            return new SpooledDocument(resource.getFile().toPath(), false);
+        }
+        Path copy = Files.createTempFile("validation-", ".docx");
+        try {
+            if (source instanceof MultipartFile file) {
+                file.transferTo(copy);
+            } else {
+                try (InputStream in = source.getInputStream()) {
+                    Files.copy(in, copy, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(copy);
+            throw e;
+        }
+        return new SpooledDocument(copy, true);
+    }
+
+    Path path() {
+        return path;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (temporary) {
+            Files.deleteIfExists(path);
+        }
+    }
+}
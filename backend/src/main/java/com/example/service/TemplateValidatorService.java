@@ -1,265 +1,151 @@
 package com.example.service;
 
-import com.example.tools.ValidationMessage;
+import com.example.service.docx.DocxReader;
+import com.example.service.docx.StreamingDocxReader;
+import com.example.service.docx.XwpfDocxReader;
+import com.example.service.rules.RuleDispatcher;
+import com.example.service.rules.RuleProfile;
+import com.example.service.rules.RuleProfiles;
 import com.example.tools.ValidationResponse;
-import com.example.tools.ValidationStats;
-import org.apache.poi.xwpf.usermodel.*;
-import org.apache.poi.xwpf.usermodel.XWPFParagraph;
-import org.apache.poi.xwpf.usermodel.XWPFRun;
-import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
-
-import org.openxmlformats.schemas.wordprocessingml.x2006.main.STJc;
-import org.openxmlformats.schemas.wordprocessingml.x2006.main.STOnOff;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+
 import java.io.IOException;
-import java.util.*;
+import java.nio.file.Path;
 
 @Service
 public class TemplateValidatorService {
 
-    private List<String> getSectionTextList() {
-        return Arrays.asList(
-                "СПИСОК СОКРАЩЕНИЙ И УСЛОВНЫХ ОБОЗНАЧЕНИЙ",
-                "ТЕРМИНЫ И ОПРЕДЕЛЕНИЯ",
-                "ВВЕДЕНИЕ",
-                "ЗАКЛЮЧЕНИЕ",
-                "СПИСОК ИСПОЛЬЗОВАННЫХ ИСТОЧНИКОВ",
-                "ПРИЛОЖЕНИЕ"
-        );
+    private final RuleDispatcher ruleDispatcher;
+    private final ValidationResultCache resultCache;
+    private final IncrementalValidationStore incrementalStore;
+    private final ParseLimiter parseLimiter;
+    private final UploadGuard uploadGuard;
+    private final ValidationMetrics metrics;
+    private final ParallelValidation parallel;
+    private final RuleProfiles ruleProfiles;
+    private final String[] ruleNames;
+
+    // 校验结果及其 id，retained 时 id 可用于之后从缓存中分页读取
+    public record Result(String id, ValidationResponse response, boolean retained) {
     }
 
-
-    List<ValidationMessage> result = new ArrayList<>();
-    Map<String, Long> errorCountMap = new HashMap<>();
+    public TemplateValidatorService(RuleDispatcher ruleDispatcher, ValidationResultCache resultCache,
+                                    IncrementalValidationStore incrementalStore, ParseLimiter parseLimiter,
+                                    UploadGuard uploadGuard, ValidationMetrics metrics, ParallelValidation parallel,
+                                    RuleProfiles ruleProfiles) {
+        this.ruleDispatcher = ruleDispatcher;
+        this.resultCache = resultCache;
+        this.incrementalStore = incrementalStore;
+        this.parseLimiter = parseLimiter;
+        this.uploadGuard = uploadGuard;
+        this.metrics = metrics;
+        this.parallel = parallel;
+        this.ruleProfiles = ruleProfiles;
+        this.ruleNames = ruleDispatcher.getRuleNames();
+    }
 
     public ValidationResponse validateTemplate(MultipartFile file) throws IOException {
-        result.clear();
-        errorCountMap.clear();
-        // 初始化结果存储
-        Set<String> checkedParagraphs = new HashSet<>();
-
-        // 用于记录已报告的错误
-        Set<String> reportedFontErrors = new HashSet<>();
-        Set<String> reportedFontSizeErrors = new HashSet<>();
-        Set<String> reportedBoldErrors = new HashSet<>();
-        Set<String> reportedAlignmentErrors = new HashSet<>();
-
-        int totalParagraphs = 0;
-
-        try (XWPFDocument doc = new XWPFDocument(file.getInputStream())) {
-            // 检查目录
-            // containsTableOfContents(doc);
-
-            // 用于存储所有段落文本
-            StringBuilder allParagraphText = new StringBuilder();
-            for (XWPFParagraph paragraph : doc.getParagraphs()) {
-                String paragraphText = paragraph.getText().trim();
-
-                if (paragraphText.isEmpty() || checkedParagraphs.contains(paragraphText)) continue;
-
-                checkedParagraphs.add(paragraphText);
-                totalParagraphs++;
-
-                allParagraphText.append(paragraphText).append("\n");
-
-                checkFont(paragraph, paragraphText, result, errorCountMap, reportedFontErrors);
-                checkFontSize(paragraph, paragraphText, result, errorCountMap, reportedFontSizeErrors);
-                checkBoldText(doc, getSectionTextList(), paragraph, paragraphText, result, errorCountMap, reportedBoldErrors);
-
-
-            }
-            checkIsExitInDocument(allParagraphText.toString(), getSectionTextList(), reportedBoldErrors);
-
-            // 统计结果
-            ValidationStats stats = new ValidationStats();
-            stats.setErrorTypeCount(errorCountMap);
-            stats.setTotalParagraphs(totalParagraphs);
-            stats.setTotalErrors(result.size());
-
-            // 如果没有错误
-            if (result.isEmpty()) {
-                result.add(new ValidationMessage(
-                        "NoErrors",
-                        "Нет ошибок",
-                        "Документ был проверен, ошибок не обнаружено.",
-                        "OK"
-                ));
-            }
-
-            return new ValidationResponse(result, stats);
-
-        }
+        return validateTemplate(file, false);
     }
 
-    // 检查字体
-    private void checkFont(XWPFParagraph paragraph, String paragraphText, List<ValidationMessage> result, Map<String, Long> errorCountMap, Set<String> reportedFontErrors) {
-        for (XWPFRun run : paragraph.getRuns()) {
-            String fontName = run.getFontFamily();
-            if (fontName != null && !fontName.equalsIgnoreCase("Times New Roman")) {
-                String errorKey = "FontMismatch:" + fontName + ":" + paragraphText;
-                if (!reportedFontErrors.contains(errorKey)) {
-                    result.add(new ValidationMessage(
-                            "FontMismatch",
-                            "Обнаружен неправильный шрифт:" + fontName,
-                            "Пожалуйста, установите шрифт 'Times New Roman'",
-                            paragraphText
-                    ));
-                    errorCountMap.merge("FontMismatch", 1L, Long::sum);
-                    reportedFontErrors.add(errorKey);
-                }
-            }
-        }
+    public ValidationResponse validateTemplate(MultipartFile file, boolean streaming) throws IOException {
+        return validateTemplate(file, new ValidationOptions(streaming, null));
     }
 
-    // 字号
-    private void checkFontSize(XWPFParagraph paragraph, String paragraphText, List<ValidationMessage> result, Map<String, Long> errorCountMap, Set<String> reportedFontSizeErrors) {
-        for (XWPFRun run : paragraph.getRuns()) {
-            int fontSize = run.getFontSize();
-            if (fontSize != -1 && (fontSize > 14 || fontSize < 12)) {
-                String errorKey = "FontSizeMismatch:" + fontSize + ":" + paragraphText;
-                if (!reportedFontSizeErrors.contains(errorKey)) {
-                    result.add(new ValidationMessage(
-                            "FontSizeMismatch",
-                            "Обнаружен неправильный размер шрифта:" + fontSize,
-                            "Пожалуйста, установите размер шрифта 12-14.",
-                            paragraphText
-                    ));
-                    errorCountMap.merge("FontSizeMismatch", 1L, Long::sum);
-                    reportedFontSizeErrors.add(errorKey);
-                }
-            }
-        }
+    public ValidationResponse validateTemplate(InputStreamSource source, ValidationOptions options) throws IOException {
+        return validateTemplate(source, options, ValidationProgressListener.NONE);
     }
 
-    // 检查文本是否存在
-    private void checkIsExitInDocument(String documentText, List<String> list, Set<String> reportedErrors){
-        for (String expectedBoldText : list) {
-            if (!documentText.contains(expectedBoldText)) {
-                String missingErrorKey = "ContentMismatch:" + expectedBoldText + ":" + "";
-                if (!reportedErrors.contains(missingErrorKey)) {
-                    result.add(new ValidationMessage(
-                            "ContentMismatch",
-                            "Отсутствует текст:'" + expectedBoldText + "'",
-                            "Убедитесь, что документ содержит текст. '" + expectedBoldText + "'",
-                            ""
-                    ));
-                    errorCountMap.merge("ContentMismatch", 1L, Long::sum);
-                    reportedErrors.add(missingErrorKey);
-                }
-            }
-        }
+    // streaming 时不构建 XWPFDocument，按段落流式读取；
+    // lineage 标识同一文档的多次上传，未改动的段落直接复用上一次的结果
+    public ValidationResponse validateTemplate(InputStreamSource source, ValidationOptions options,
+                                               ValidationProgressListener listener) throws IOException {
+        return validateWithId(source, options, listener).response();
     }
-    // 检查文本是否加粗和是否左对齐
-    private void checkBoldText(XWPFDocument doc, List<String> list, XWPFParagraph paragraph, String paragraphText, List<ValidationMessage> result, Map<String, Long> errorCountMap, Set<String> reportedBoldErrors) {
 
-        for (String expectedBoldText : list) {
-            if (paragraphText.contains(expectedBoldText)) {
-                StringBuilder boldText = new StringBuilder();
-
-                boolean isBold = isParagraphBold(paragraph, doc);
-
-                // 如果包含了文本，但未加粗，返回错误
-                if (!isBold) {
-                    String errorKey = "BoldError:" + expectedBoldText + ":" + paragraphText;
-                    if (!reportedBoldErrors.contains(errorKey)) {
-                        result.add(new ValidationMessage(
-                                "BoldError",
-                                "Жирный текст неверен, нежирный текст обнаружен",
-                                "Пожалуйста, сделайте текст жирным.",
-                                paragraphText
-                        ));
-                        errorCountMap.merge("BoldError", 1L, Long::sum);
-                        reportedBoldErrors.add(errorKey);
-                    }
-                }
+    public Result validateWithId(InputStreamSource source, ValidationOptions options) throws IOException {
+        return validateWithId(source, options, ValidationProgressListener.NONE);
+    }
 
-                // 检查段落是否是左对齐
-                ParagraphAlignment effectiveAlign = getEffectiveAlignment(paragraph, doc);
-                if (effectiveAlign != ParagraphAlignment.LEFT) {
-                    String alignmentErrorKey = "AlignmentError:" + expectedBoldText + ":" + paragraphText;
-                    if (!reportedBoldErrors.contains(alignmentErrorKey)) {
-                        result.add(new ValidationMessage(
-                                "AlignmentError",
-                                "Жирный текст должен быть выровнен по левому краю.",
-                                "Пожалуйста, выровняйте жирный текст по левому краю.",
-                                paragraphText
-                        ));
-                        errorCountMap.merge("AlignmentError", 1L, Long::sum);
-                        reportedBoldErrors.add(alignmentErrorKey);
-                    }
-                }
+    public Result validateWithId(InputStreamSource source, ValidationOptions options,
+                                 ValidationProgressListener listener) throws IOException {
+        long start = System.nanoTime();
+        // 在读取文件之前解析规则集，名称错误时直接返回 400
+        RuleProfile profile = ruleProfiles.get(options.getProfile());
+        // 先落到磁盘，之后只按需解压需要的 XML 条目
+        try (SpooledDocument document = SpooledDocument.of(source)) {
+            // 同一文件重复上传时直接返回缓存的结果，不再打开文档
+            ValidationResultCache.Key key = new ValidationResultCache.Key(
+                    ContentHash.sha256(new FileSystemResource(document.path())), profile.getName(),
+                    ruleSetVersion(profile), options.errorBudgetKey());
+            ValidationResponse cached = resultCache.get(key);
+            if (cached != null) {
+                metrics.recordValidation(true, System.nanoTime() - start);
+                return new Result(key.id(), cached, true);
+            }
 
+            // 检查 zip 炸弹并占用内存预算；大文档自动改用流式读取
+            ValidationResponse response;
+            try (UploadGuard.Admission admission = uploadGuard.admit(document.path(), options.isStreaming())) {
+                // 计算哈希属于 I/O，不占解析许可；打开文档到规则跑完这一段才受并发限制
+                response = parseLimiter.run(() -> validate(document.path(), admission.isStreaming(), options, profile, listener));
             }
+            boolean retained = resultCache.put(key, response);
+            metrics.recordDocument(response);
+            metrics.recordValidation(false, System.nanoTime() - start);
+            return new Result(key.id(), response, retained);
         }
     }
 
-
-    private boolean isStyleBold(XWPFStyle style) {
-        if (style != null && style.getCTStyle().getRPr() != null && style.getCTStyle().getRPr().getB() != null) {
-            STOnOff.Enum boldVal = style.getCTStyle().getRPr().getB().getVal();
-            return boldVal == STOnOff.TRUE || boldVal == null;
-        }
-        return false;
+    // 按 id 读取之前的结果；已过期、被淘汰或 id 无效时返回 null
+    public ValidationResponse findResult(String id) {
+        ValidationResultCache.Key key = ValidationResultCache.Key.fromId(id, name -> {
+            RuleProfile profile = ruleProfiles.find(name);
+            return profile == null ? null : ruleSetVersion(profile);
+        });
+        return key == null ? null : resultCache.peek(key);
     }
 
+    // 规则实现和规则集配置任一变化，缓存的结果和增量校验的基线都不能再用
+    private String ruleSetVersion(RuleProfile profile) {
+        return ruleDispatcher.getRuleSetVersion() + "|" + profile.getVersion();
+    }
 
-
-
-
-    private boolean isParagraphBold(XWPFParagraph paragraph, XWPFDocument document) {
-        boolean hasRun = false;
-        boolean hasAnyBoldRun = false;
-
-        for (XWPFRun run : paragraph.getRuns()) {
-            hasRun = true;
-            if (run.getCTR() != null && run.getCTR().getRPr() != null && run.getCTR().getRPr().isSetB()) {
-                STOnOff.Enum val = run.getCTR().getRPr().getB().getVal();
-                if (val == STOnOff.FALSE) {
-                    return false; // 明确取消加粗，优先级最高
-                } else {
-                    hasAnyBoldRun = true;
-                }
+    private ValidationResponse validate(Path file, boolean streaming, ValidationOptions options, RuleProfile profile,
+                                        ValidationProgressListener listener) throws IOException {
+        long openStart = System.nanoTime();
+        try (DocxReader reader = streaming
+                ? StreamingDocxReader.open(file)
+                : XwpfDocxReader.open(file)) {
+            metrics.recordOpen(streaming, System.nanoTime() - openStart);
+            // 所有状态都在 ValidationContext 中，服务本身无共享可变状态
+            ValidationContext context = new ValidationContext();
+            context.setProgressListener(listener);
+            context.setProfile(profile);
+            context.setErrorBudget(options.effectiveMaxErrors(), options.getMaxErrorsPerCode());
+            // 有错误预算时结果不完整，既不能复用也不能作为下次增量校验的基线
+            String lineage = options.hasErrorBudget() ? null : options.getLineage();
+            String ruleSetVersion = ruleSetVersion(profile);
+            if (lineage != null) {
+                context.enableSnapshot(incrementalStore.get(lineage, ruleSetVersion));
             }
-        }
-
-        // 所有 run 都没设置，检查样式
-        if (!hasRun || !hasAnyBoldRun) {
-            String styleId = paragraph.getStyle();
-            if (styleId != null) {
-                XWPFStyle style = document.getStyles().getStyle(styleId);
-                return isStyleBold(style);
+            // 流式读取时解析发生在遍历过程中，所以 parse 计时包含读取和全部规则
+            long[] ruleNanos = new long[ruleNames.length];
+            long parseStart = System.nanoTime();
+            if (options.isParallel()) {
+                ruleDispatcher.dispatchParallel(reader, context, ruleNanos, parallel.getPool(), parallel.getChunkSize());
+            } else {
+                ruleDispatcher.dispatch(reader, context, ruleNanos);
             }
-            return false;
-        }
-
-        return true;
-    }
-
-
-
-    private ParagraphAlignment getEffectiveAlignment(XWPFParagraph paragraph, XWPFDocument doc) {
-        // 如果段落本身有设置，直接返回
-        if (paragraph.getAlignment() != ParagraphAlignment.LEFT || paragraph.getCTP().getPPr().isSetJc()) {
-            return paragraph.getAlignment();
-        }
-
-        // 获取段落的样式 ID
-        String styleId = paragraph.getStyle();
-        if (styleId != null) {
-            XWPFStyles styles = doc.getStyles();
-            XWPFStyle style = styles.getStyle(styleId);
-            if (style != null && style.getCTStyle().getPPr() != null && style.getCTStyle().getPPr().isSetJc()) {
-                STJc.Enum jcVal = style.getCTStyle().getPPr().getJc().getVal();
-                return ParagraphAlignment.valueOf(jcVal.toString().toUpperCase());
+            metrics.recordParse(System.nanoTime() - parseStart);
+            metrics.recordRules(ruleNames, ruleNanos);
+            if (lineage != null) {
+                incrementalStore.put(lineage, context.toSnapshot(ruleSetVersion));
             }
+            return context.toResponse();
         }
-
-        // 默认返回左对齐
-        return ParagraphAlignment.LEFT;
     }
-
-
-
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,156 @@
+package com.example.service;
+
+import com.example.service.docx.StreamingDocxReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+// 打开文档前的检查：
+// 1. 按 zip 中央目录检查条目数、需要解析的 XML 条目大小和压缩比，拒绝 zip 炸弹；
+//    中央目录可以伪造，解压时 ZipSecureFile 还会再按实际字节检查一次（限制在 PoiZipSecurityConfig 中设置）
+// 2. document.xml 过大时自动改用流式读取，内存占用与文档大小无关
+// 3. 全局的在途字节预算：预估解析所需内存超过预算时等待片刻，仍然拿不到则返回 429
+@Component
+public class UploadGuard {
+
+    // XMLBeans DOM 占用的堆大约是 XML 原文的数倍
+    private static final int DOM_OVERHEAD = 4;
+    // 流式读取只保留当前段落，按固定大小计
+    private static final long STREAMING_WEIGHT = 256 * 1024;
+    // 小条目压缩比再高也无害，不检查
+    private static final long RATIO_CHECK_MIN_SIZE = 1024 * 1024;
+
+    public final class Admission implements AutoCloseable {
+        private final boolean streaming;
+        private final int permits;
+
+        private Admission(boolean streaming, int permits) {
+            this.streaming = streaming;
+            this.permits = permits;
+        }
+
+        public boolean isStreaming() {
+            return streaming;
+        }
+
+        @Override
+        public void close() {
+            budget.release(permits);
+        }
+    }
+
+    private final int maxEntries;
+    private final int maxCompressionRatio;
+    private final long maxXmlSize;
+    private final long streamingThreshold;
+    private final long budgetWaitMillis;
+    // 429 的 Retry-After（秒）：至少等一个预算等待时间再重试
+    private final long retryAfterSeconds;
+    // 以 KB 为单位
+    private final Semaphore budget;
+    private final int budgetKb;
+
+    public UploadGuard(@Value("${validator.upload.max-entries:10000}") int maxEntries,
+                       @Value("${validator.upload.max-compression-ratio:100}") int maxCompressionRatio,
+                       @Value("${validator.upload.max-xml-size:512MB}") DataSize maxXmlSize,
+                       @Value("${validator.upload.streaming-threshold:32MB}") DataSize streamingThreshold,
+                       @Value("${validator.upload.max-in-flight:1GB}") DataSize maxInFlight,
+                       @Value("${validator.upload.budget-wait:2s}") Duration budgetWait) {
+        this.maxEntries = maxEntries;
+        this.maxCompressionRatio = maxCompressionRatio;
+        this.maxXmlSize = maxXmlSize.toBytes();
+        this.streamingThreshold = streamingThreshold.toBytes();
+        this.budgetWaitMillis = budgetWait.toMillis();
+        this.retryAfterSeconds = Math.max(1, (budgetWaitMillis + 999) / 1000);
+        this.budgetKb = (int) Math.max(1, Math.min(Integer.MAX_VALUE, maxInFlight.toKilobytes()));
+        this.budget = new Semaphore(budgetKb, true);
+    }
+
+    public Admission admit(Path file, boolean streaming) throws IOException {
+        long documentSize;
+        long stylesSize;
+        try (ZipFile zip = new ZipFile(file.toFile())) {
+            if (zip.size() > maxEntries) {
+                throw rejected("слишком много элементов в архиве (" + zip.size() + ")");
+            }
+            documentSize = checkEntry(zip, StreamingDocxReader.DOCUMENT_PART);
+            stylesSize = checkEntry(zip, StreamingDocxReader.STYLES_PART);
+        }
+
+        boolean useStreaming = streaming || documentSize > streamingThreshold;
+        long weight = useStreaming
+                ? stylesSize * DOM_OVERHEAD + STREAMING_WEIGHT
+                : (documentSize + stylesSize) * DOM_OVERHEAD;
+        int permits = (int) Math.max(1, Math.min(budgetKb, (weight + 1023) / 1024));
+        try {
+            if (!budget.tryAcquire(permits, budgetWaitMillis, TimeUnit.MILLISECONDS)) {
+                throw new OverloadedException(retryAfterSeconds);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Ожидание проверки прервано");
+        }
+        return new Admission(useStreaming, permits);
+    }
+
+    // 返回条目声明的解压后大小，条目不存在时为 0
+    private long checkEntry(ZipFile zip, String name) {
+        ZipEntry entry = zip.getEntry(name);
+        if (entry == null) {
+            return 0;
+        }
+        long size = entry.getSize();
+        long compressed = entry.getCompressedSize();
+        if (size > maxXmlSize) {
+            throw rejected(name + " слишком большой (" + DataSize.ofBytes(size).toMegabytes() + "MB)");
+        }
+        checkCompression(name, size, compressed);
+        return Math.max(size, 0);
+    }
+
+    // 解压后 size 字节、压缩后 compressed 字节的条目，压缩比超过上限时返回 422；
+    // 批量校验解压 zip 时按实际解出的字节数调用
+    public void checkCompression(String name, long size, long compressed) {
+        if (size > RATIO_CHECK_MIN_SIZE && compressed > 0 && size / compressed > maxCompressionRatio) {
+            throw rejected("подозрительная степень сжатия " + name + " (" + size / compressed + ":1)");
+        }
+    }
+
+    // 带 Retry-After 头的 429，Spring 写响应时会带上 getHeaders() 中的头
+    static final class OverloadedException extends ResponseStatusException {
+        private final long retryAfterSeconds;
+
+        OverloadedException(long retryAfterSeconds) {
+            super(HttpStatus.TOO_MANY_REQUESTS, "Сервер перегружен, повторите попытку позже.");
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            return headers;
+        }
+    }
+
+    static ResponseStatusException rejected(String reason) {
+        return new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "Документ отклонён: " + reason);
+    }
+
+    // 当前可用的预算（KB）
+    public int getAvailableKb() {
+        return budget.availablePermits();
+    }
+}
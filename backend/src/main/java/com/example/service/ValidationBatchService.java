@@ -0,0 +1,381 @@
+package com.example.service;
+
+import com.example.tools.BatchValidationItem;
+import com.example.tools.BatchValidationSummary;
+import com.example.tools.ValidationResponse;
+import com.example.tools.ValidationStats;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+// 批量校验：多个 docx 或一个 zip，在 work-stealing 线程池中并行校验，
+// 每完成一个文档就以 NDJSON 写出一行，最后一行是整个批次的汇总
+@Service
+public class ValidationBatchService {
+
+    public record Upload(String name, Path path) {
+    }
+
+    private record Result(int index, String name, long weight, ValidationResponse response, String error) {
+    }
+
+    private static final long DRAIN_INTERVAL_MILLIS = 50;
+
+    private final TemplateValidatorService validatorService;
+    private final UploadGuard uploadGuard;
+    private final ObjectMapper objectMapper;
+    private final ForkJoinPool pool;
+    // 所有批次共享的解压字节预算，以 KB 为单位
+    private final Semaphore budget;
+    private final int budgetKb;
+    // 单个批次中 zip 的条目总数、单个 docx 条目和全部解出内容的大小上限
+    private final int maxEntries;
+    private final long maxEntrySize;
+    private final long maxExtractedSize;
+
+    public ValidationBatchService(TemplateValidatorService validatorService, UploadGuard uploadGuard,
+                                  ObjectMapper objectMapper,
+                                  @Value("${validator.batch.parallelism:0}") int parallelism,
+                                  @Value("${validator.batch.max-in-flight:256MB}") DataSize maxInFlight,
+                                  @Value("${validator.batch.max-entries:1000}") int maxEntries,
+                                  @Value("${validator.batch.max-entry-size:200MB}") DataSize maxEntrySize,
+                                  @Value("${validator.batch.max-extracted-size:2GB}") DataSize maxExtractedSize) {
+        this.validatorService = validatorService;
+        this.uploadGuard = uploadGuard;
+        this.objectMapper = objectMapper;
+        this.maxEntries = maxEntries;
+        this.maxEntrySize = maxEntrySize.toBytes();
+        this.maxExtractedSize = maxExtractedSize.toBytes();
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+                ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+        this.budgetKb = (int) Math.max(1, Math.min(Integer.MAX_VALUE, maxInFlight.toKilobytes()));
+        this.budget = new Semaphore(budgetKb, true);
+    }
+
+    // 请求结束后 multipart 临时文件会被删除，先把上传内容复制出来；
+    // 同时按中央目录检查 zip，超出限制时在开始写响应之前返回 422
+    public List<Upload> spool(List<MultipartFile> files) throws IOException {
+        List<Upload> uploads = new ArrayList<>();
+        try {
+            for (MultipartFile file : files) {
+                Path copy = Files.createTempFile("validation-batch-", ".upload");
+                uploads.add(new Upload(file.getOriginalFilename(), copy));
+                file.transferTo(copy);
+            }
+            inspect(uploads);
+        } catch (IOException | RuntimeException e) {
+            delete(uploads);
+            throw e;
+        }
+        return uploads;
+    }
+
+    // 中央目录中声明的大小可以伪造，解压时 extract 还会按实际字节再检查一次
+    private void inspect(List<Upload> uploads) throws IOException {
+        int entries = 0;
+        long extracted = 0;
+        for (Upload upload : uploads) {
+            if (!isZip(upload.name())) continue;
+            try (ZipFile zip = open(upload)) {
+                entries += zip.size();
+                if (entries > maxEntries) {
+                    throw UploadGuard.rejected("слишком много элементов в архивах пакета (> " + maxEntries + ")");
+                }
+                Enumeration<? extends ZipEntry> all = zip.entries();
+                while (all.hasMoreElements()) {
+                    ZipEntry entry = all.nextElement();
+                    if (entry.isDirectory() || !isDocx(entry.getName())) continue;
+                    long size = Math.max(entry.getSize(), 0);
+                    checkEntrySize(entry.getName(), size);
+                    uploadGuard.checkCompression(entry.getName(), size, entry.getCompressedSize());
+                    extracted += size;
+                    checkExtractedSize(extracted);
+                }
+            }
+        }
+    }
+
+    private static ZipFile open(Upload upload) throws IOException {
+        try {
+            return new ZipFile(upload.path().toFile());
+        } catch (ZipException e) {
+            throw UploadGuard.rejected("повреждённый архив " + upload.name());
+        }
+    }
+
+    // 按实际解出的字节数检查单个条目的大小、压缩比和整个批次的解压总量，超出时立即停止
+    private long extract(ZipFile zip, ZipEntry entry, Path target, long extracted) throws IOException {
+        long copied = 0;
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = zip.getInputStream(entry); OutputStream out = Files.newOutputStream(target)) {
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                copied += n;
+                checkEntrySize(entry.getName(), copied);
+                uploadGuard.checkCompression(entry.getName(), copied, entry.getCompressedSize());
+                checkExtractedSize(extracted + copied);
+                out.write(buffer, 0, n);
+            }
+        }
+        return copied;
+    }
+
+    private void checkEntrySize(String name, long size) {
+        if (size > maxEntrySize) {
+            throw UploadGuard.rejected(name + " слишком большой (> " + DataSize.ofBytes(maxEntrySize).toMegabytes() + "MB)");
+        }
+    }
+
+    private void checkExtractedSize(long extracted) {
+        if (extracted > maxExtractedSize) {
+            throw UploadGuard.rejected("общий объём распакованных документов превышает "
+                    + DataSize.ofBytes(maxExtractedSize).toMegabytes() + "MB");
+        }
+    }
+
+    // zip 中的 docx 逐个解出后立即提交，解压字节超出预算时在这里等待
+    public void validate(List<Upload> uploads, ValidationOptions options, OutputStream out) throws IOException {
+        Batch batch = new Batch(out, options);
+        long extracted = 0;
+        try {
+            for (Upload upload : uploads) {
+                if (isZip(upload.name())) {
+                    try (ZipFile zip = open(upload)) {
+                        Enumeration<? extends ZipEntry> entries = zip.entries();
+                        while (entries.hasMoreElements()) {
+                            ZipEntry entry = entries.nextElement();
+                            if (entry.isDirectory() || !isDocx(entry.getName())) {
+                                continue;
+                            }
+                            Path docx = Files.createTempFile("validation-batch-", ".docx");
+                            try {
+                                extracted += extract(zip, entry, docx, extracted);
+                            } catch (IOException | RuntimeException e) {
+                                delete(docx);
+                                throw e;
+                            }
+                            batch.submit(entry.getName(), docx);
+                        }
+                    }
+                } else {
+                    // 原始上传文件由调用方统一删除，这里复制一份交给任务
+                    Path docx = Files.createTempFile("validation-batch-", ".docx");
+                    Files.copy(upload.path(), docx, StandardCopyOption.REPLACE_EXISTING);
+                    batch.submit(upload.name(), docx);
+                }
+                batch.drain(false);
+            }
+            while (batch.pending > 0) {
+                batch.drain(true);
+            }
+        } finally {
+            batch.abandon();
+        }
+        writeLine(out, new BatchValidationSummary(batch.submitted, batch.failed, batch.total));
+    }
+
+    // 单个批次的状态，只在请求线程中访问
+    private final class Batch {
+        final CompletionService<Result> completion = new ExecutorCompletionService<>(pool);
+        final ValidationStats total = new ValidationStats(new HashMap<>(), 0, 0, false);
+        final OutputStream out;
+        final ValidationOptions options;
+        int submitted;
+        int pending;
+        int failed;
+
+        Batch(OutputStream out, ValidationOptions options) {
+            this.out = out;
+            this.options = options;
+        }
+
+        void submit(String name, Path docx) throws IOException {
+            long weight = weightOf(docx);
+            try {
+                acquire(weight);
+            } catch (IOException e) {
+                delete(docx);
+                throw e;
+            }
+            int index = submitted++;
+            pending++;
+            completion.submit(() -> {
+                try {
+                    ValidationResponse response = validatorService.validateTemplate(new FileSystemResource(docx),
+                            options.withLineage(options.getLineage() == null ? null : options.getLineage() + "/" + name));
+                    return new Result(index, name, weight, response, null);
+                } catch (Exception e) {
+                    return new Result(index, name, weight, null, e.getMessage() != null ? e.getMessage() : e.toString());
+                } finally {
+                    delete(docx);
+                }
+            });
+        }
+
+        // 等待预算期间继续写出已完成的结果，它们归还的预算正是这里在等的
+        private void acquire(long weight) throws IOException {
+            int permits = permitsOf(weight);
+            try {
+                while (!budget.tryAcquire(permits, DRAIN_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    drain(false);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Пакетная проверка прервана");
+            }
+        }
+
+        // 写出已完成的结果；block 为 true 时至少等待一个
+        void drain(boolean block) throws IOException {
+            try {
+                Future<Result> future = block ? completion.take() : completion.poll();
+                while (future != null) {
+                    Result result = future.get();
+                    pending--;
+                    release(result);
+                    if (result.response() != null) {
+                        merge(total, result.response().getStats());
+                    } else {
+                        failed++;
+                    }
+                    writeLine(out, new BatchValidationItem(result.index(), result.name(), result.response(), result.error()));
+                    future = completion.poll();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Пакетная проверка прервана");
+            } catch (ExecutionException e) {
+                // 任务内部已捕获所有异常，不会走到这里
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+
+        // 客户端断开等异常情况下，仍要等已提交的任务结束，归还预算
+        void abandon() {
+            boolean interrupted = false;
+            while (pending > 0) {
+                try {
+                    release(completion.take().get());
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException ignored) {
+                }
+                pending--;
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void release(Result result) {
+        budget.release(permitsOf(result.weight()));
+    }
+
+    private void writeLine(OutputStream out, Object line) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(line));
+        out.write('\n');
+        out.flush();
+    }
+
+    private static void merge(ValidationStats total, ValidationStats stats) {
+        if (stats == null) {
+            return;
+        }
+        total.setTotalParagraphs(total.getTotalParagraphs() + stats.getTotalParagraphs());
+        total.setTotalErrors(total.getTotalErrors() + stats.getTotalErrors());
+        total.setLowerBound(total.isLowerBound() || stats.isLowerBound());
+        for (Map.Entry<String, Long> entry : stats.getErrorTypeCount().entrySet()) {
+            total.getErrorTypeCount().merge(entry.getKey(), entry.getValue(), Long::sum);
+        }
+    }
+
+    // 文档的解压后大小：docx 中央目录里各条目未压缩大小之和，读不到时按文件大小估算
+    static long weightOf(Path docx) {
+        long weight = 0;
+        try (ZipFile zip = new ZipFile(docx.toFile())) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                long size = entries.nextElement().getSize();
+                if (size > 0) {
+                    weight += size;
+                }
+            }
+        } catch (IOException e) {
+            weight = 0;
+        }
+        if (weight == 0) {
+            try {
+                weight = Files.size(docx);
+            } catch (IOException ignored) {
+            }
+        }
+        return weight;
+    }
+
+    // 单个文档超过整个预算时按整个预算计，避免永远拿不到许可
+    private int permitsOf(long weight) {
+        return (int) Math.max(1, Math.min(budgetKb, (weight + 1023) / 1024));
+    }
+
+    private static boolean isZip(String name) {
+        return name != null && name.toLowerCase(Locale.ROOT).endsWith(".zip");
+    }
+
+    private static boolean isDocx(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        // 跳过 macOS 压缩时附带的元数据文件
+        return lower.endsWith(".docx") && !lower.startsWith("__macosx/") && !lower.contains("/._");
+    }
+
+    public void delete(List<Upload> uploads) {
+        for (Upload upload : uploads) {
+            delete(upload.path());
+        }
+    }
+
+    private static void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+        }
+    }
+
+    // 当前可用的解压字节预算（KB）
+    public int getAvailableKb() {
+        return budget.availablePermits();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.service;
+
+import com.example.service.docx.DocxLocation;
+import com.example.service.docx.ResolvedStyleCache;
+import com.example.service.rules.RuleProfile;
+import com.example.service.rules.RuleProfiles;
+import com.example.tools.ValidationMessage;
+import com.example.tools.ValidationResponse;
+import com.example.tools.ValidationStats;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+// 单次校验的状态，每个请求一个实例，不在线程间共享
+public class ValidationContext {
+
+    private final List<ValidationMessage> messages = new ArrayList<>();
+    // 与 messages 一一对应的去重 key
+    private final List<String> messageKeys = new ArrayList<>();
+    private final Map<String, Long> errorCountMap = new HashMap<>();
+    private final Set<String> checkedParagraphs = new HashSet<>();
+    // 已报告的错误，key 形如 "FontMismatch:字体:段落文本"
+    private final Set<String> reportedErrors = new HashSet<>();
+    private int totalParagraphs;
+    private ResolvedStyleCache styles = ResolvedStyleCache.empty();
+    private RuleProfile profile = RuleProfiles.bundledDefault();
+    // 各规则自己的文档级状态
+    private final Map<Object, Object> ruleStates = new HashMap<>();
+
+    // 增量校验：上一次的段落快照，以及本次记录的段落结果（未开启时为 null）
+    private ParagraphSnapshot baseline;
+    private Map<Long, ParagraphSnapshot.Outcome> outcomes;
+    // 正在检查的段落中规则要求报告的错误（去重之前），不在记录时为 null。
+    // 错误 key 不含位置，表格中与正文相同的错误会被去重掉，但它仍是该段落的结果
+    private Map<String, ValidationMessage> paragraphErrors;
+
+    private ValidationProgressListener progressListener = ValidationProgressListener.NONE;
+
+    // 错误预算（0 表示不限制）；truncated 表示有错误未被收集，统计只是下限
+    private int maxErrors;
+    private int maxErrorsPerCode;
+    private boolean truncated;
+    private boolean stopped;
+
+    // 当前段落的序号，记录到错误消息中；-1 表示文档级检查
+    private int currentParagraph = -1;
+
+    // 段落文本第一次出现时返回 true，重复段落只检查一次；
+    // 正文之外的段落单独去重：表格或页眉中先出现的同名文本不能让正文中的标题被跳过
+    public boolean markParagraph(DocxLocation location, String paragraphText) {
+        String key = location == DocxLocation.BODY ? paragraphText : location.ordinal() + ":" + paragraphText;
+        if (!checkedParagraphs.add(key)) {
+            return false;
+        }
+        totalParagraphs++;
+        return true;
+    }
+
+    // 同一个 errorKey 只报告一次
+    public void report(String errorKey, ValidationMessage message) {
+        if (!accepts(message.getCode())) {
+            return;
+        }
+        if (paragraphErrors != null) {
+            paragraphErrors.putIfAbsent(errorKey, message);
+        }
+        if (reportedErrors.add(errorKey)) {
+            // 重放的消息来自上一次上传，段落位置可能已经变化，总是按当前段落重新标记
+            messages.add(message.withParagraph(currentParagraph >= 0 ? currentParagraph : null));
+            messageKeys.add(errorKey);
+            errorCountMap.merge(message.getCode(), 1L, Long::sum);
+            if (maxErrors > 0 && messages.size() >= maxErrors) {
+                stopped = true;
+            }
+        }
+    }
+
+    public void setCurrentParagraph(int currentParagraph) {
+        this.currentParagraph = currentParagraph;
+    }
+
+    public void setErrorBudget(int maxErrors, int maxErrorsPerCode) {
+        this.maxErrors = maxErrors;
+        this.maxErrorsPerCode = maxErrorsPerCode;
+    }
+
+    // 规则在生成错误消息之前调用：预算已用完时返回 false，规则可以直接跳过拼接消息
+    public boolean accepts(String code) {
+        if (stopped || (maxErrorsPerCode > 0 && errorCountMap.getOrDefault(code, 0L) >= maxErrorsPerCode)) {
+            truncated = true;
+            return false;
+        }
+        return true;
+    }
+
+    public boolean hasErrorBudget() {
+        return maxErrors > 0 || maxErrorsPerCode > 0;
+    }
+
+    // 总预算用完，停止扫描剩余段落
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    public boolean isTruncated() {
+        return truncated || stopped;
+    }
+
+    // 开启增量校验，baseline 可以为 null
+    public void enableSnapshot(ParagraphSnapshot baseline) {
+        this.baseline = baseline;
+        this.outcomes = new HashMap<>();
+    }
+
+    public boolean isSnapshotEnabled() {
+        return outcomes != null;
+    }
+
+    public ParagraphSnapshot.Outcome cachedOutcome(long fingerprint) {
+        return baseline == null ? null : baseline.get(fingerprint);
+    }
+
+    // 重放上一次该段落产生的错误
+    public void replay(ParagraphSnapshot.Outcome outcome) {
+        for (int i = 0; i < outcome.messages().size(); i++) {
+            report(outcome.errorKeys().get(i), outcome.messages().get(i));
+        }
+    }
+
+    // 并行模式下一个段落块使用的 context：共享样式和增量校验的基线（只读），其余状态独立
+    public ValidationContext newChunk() {
+        ValidationContext chunk = new ValidationContext();
+        chunk.styles = styles;
+        chunk.profile = profile;
+        if (isSnapshotEnabled()) {
+            chunk.enableSnapshot(baseline);
+        }
+        return chunk;
+    }
+
+    // 按文档顺序合并段落块的结果，去重和计数与顺序执行时相同
+    public void merge(ValidationContext chunk) {
+        int paragraph = currentParagraph;
+        for (int i = 0; i < chunk.messages.size(); i++) {
+            ValidationMessage message = chunk.messages.get(i);
+            currentParagraph = message.getParagraph() != null ? message.getParagraph() : -1;
+            report(chunk.messageKeys.get(i), message);
+        }
+        currentParagraph = paragraph;
+        if (chunk.outcomes != null) {
+            outcomes.putAll(chunk.outcomes);
+        }
+    }
+
+    // 开始收集一个段落的结果，与 recordOutcome(long) 成对调用
+    public void beginOutcome() {
+        paragraphErrors = new LinkedHashMap<>();
+    }
+
+    // 把 beginOutcome 之后规则报告的所有错误（包括被去重的）记录为该段落的结果
+    public void recordOutcome(long fingerprint) {
+        Map<String, ValidationMessage> errors = paragraphErrors;
+        paragraphErrors = null;
+        recordOutcome(fingerprint, errors.isEmpty()
+                ? ParagraphSnapshot.Outcome.EMPTY
+                : new ParagraphSnapshot.Outcome(List.copyOf(errors.keySet()), List.copyOf(errors.values())));
+    }
+
+    public void recordOutcome(long fingerprint, ParagraphSnapshot.Outcome outcome) {
+        outcomes.put(fingerprint, outcome);
+    }
+
+    public ParagraphSnapshot toSnapshot(String ruleSetVersion) {
+        return new ParagraphSnapshot(ruleSetVersion, outcomes);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T state(Object owner, Supplier<T> initial) {
+        return (T) ruleStates.computeIfAbsent(owner, key -> initial.get());
+    }
+
+    public void setProgressListener(ValidationProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    // 已读取 processed 个段落（包括空段落和重复段落）
+    public void progress(int processedParagraphs, int totalParagraphs) {
+        progressListener.onProgress(processedParagraphs, totalParagraphs, messages.size());
+    }
+
+    public ResolvedStyleCache getStyles() {
+        return styles;
+    }
+
+    public void setStyles(ResolvedStyleCache styles) {
+        this.styles = styles;
+    }
+
+    public RuleProfile getProfile() {
+        return profile;
+    }
+
+    public void setProfile(RuleProfile profile) {
+        this.profile = profile;
+    }
+
+    public List<ValidationMessage> getMessages() {
+        return messages;
+    }
+
+    public int getTotalParagraphs() {
+        return totalParagraphs;
+    }
+
+    public ValidationResponse toResponse() {
+        // 统计结果
+        ValidationStats stats = new ValidationStats();
+        stats.setErrorTypeCount(errorCountMap);
+        stats.setTotalParagraphs(totalParagraphs);
+        stats.setTotalErrors(messages.size());
+        stats.setLowerBound(isTruncated());
+
+        List<ValidationMessage> result = new ArrayList<>(messages);
+        // 如果没有错误
+        if (result.isEmpty()) {
+            result.add(new ValidationMessage(
+                    "NoErrors",
+                    "Нет ошибок",
+                    "Документ был проверен, ошибок не обнаружено.",
+                    "OK"
+            ));
+        }
+        return new ValidationResponse(result, stats);
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.service;
+
+import com.example.tools.ValidationJobStatus;
+import com.example.tools.ValidationResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+// 异步校验任务：上传后立即返回 jobId，在 validationJobExecutor 中校验，进度通过 SSE 推送
+@Service
+public class ValidationJobService {
+
+    public enum Status { QUEUED, RUNNING, DONE, FAILED }
+
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private static final class Job {
+        final String id;
+        volatile Status status = Status.QUEUED;
+        volatile int processed;
+        volatile int total = -1;
+        volatile int messages;
+        volatile ValidationResponse result;
+        volatile String error;
+        volatile long finishedAt;
+        volatile long lastEventAt;
+        final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+        Job(String id) {
+            this.id = id;
+        }
+
+        boolean isFinished() {
+            return status == Status.DONE || status == Status.FAILED;
+        }
+    }
+
+    private final TemplateValidatorService validatorService;
+    private final AsyncTaskExecutor executor;
+    // 未结束任务数的上限（执行中 + 排队），平台线程池和虚拟线程两种模式共用
+    private final Semaphore slots;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final long retentionNanos;
+    private final long sseTimeoutMillis;
+    // 完成时间和过期清理使用的时钟，测试中可以替换
+    private final LongSupplier clock;
+
+    @Autowired
+    public ValidationJobService(TemplateValidatorService validatorService,
+                                @Qualifier("validationJobExecutor") AsyncTaskExecutor executor,
+                                @Value("${validator.jobs.threads:0}") int threads,
+                                @Value("${validator.jobs.queue-capacity:100}") int queueCapacity,
+                                @Value("${validator.jobs.retention:10m}") Duration retention,
+                                @Value("${validator.jobs.sse-timeout:30m}") Duration sseTimeout) {
+        this(validatorService, executor, threads, queueCapacity, retention, sseTimeout, System::nanoTime);
+    }
+
+    ValidationJobService(TemplateValidatorService validatorService, AsyncTaskExecutor executor, int threads,
+                         int queueCapacity, Duration retention, Duration sseTimeout, LongSupplier clock) {
+        this.validatorService = validatorService;
+        this.clock = clock;
+        this.executor = executor;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.slots = new Semaphore(poolSize + queueCapacity);
+        this.retentionNanos = retention.toNanos();
+        this.sseTimeoutMillis = sseTimeout.toMillis();
+    }
+
+    public ValidationJobStatus submit(MultipartFile file, ValidationOptions options) throws IOException {
+        purgeExpired();
+        if (!slots.tryAcquire()) {
+            throw queueFull();
+        }
+
+        // 请求结束后 multipart 临时文件会被删除，先复制一份给任务使用
+        Path copy;
+        try {
+            copy = Files.createTempFile("validation-job-", ".docx");
+        } catch (IOException | RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+        try {
+            file.transferTo(copy);
+        } catch (IOException | RuntimeException e) {
+            slots.release();
+            Files.deleteIfExists(copy);
+            throw e;
+        }
+
+        Job job = new Job(UUID.randomUUID().toString());
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job, copy, options));
+        } catch (RejectedExecutionException e) {
+            slots.release();
+            jobs.remove(job.id);
+            Files.deleteIfExists(copy);
+            throw queueFull();
+        }
+        return toStatus(job);
+    }
+
+    private static ResponseStatusException queueFull() {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Очередь проверки переполнена, попробуйте позже.");
+    }
+
+    public ValidationJobStatus status(String jobId) {
+        return toStatus(find(jobId));
+    }
+
+    // 指定状态的任务数，用于监控
+    public int count(Status status) {
+        int count = 0;
+        for (Job job : jobs.values()) {
+            if (job.status == status) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // 未完成时返回 null
+    public ValidationResponse result(String jobId) {
+        return find(jobId).result;
+    }
+
+    public SseEmitter subscribe(String jobId) {
+        Job job = find(jobId);
+        SseEmitter emitter = new SseEmitter(sseTimeoutMillis);
+        emitter.onCompletion(() -> job.emitters.remove(emitter));
+        emitter.onTimeout(() -> job.emitters.remove(emitter));
+        emitter.onError(e -> job.emitters.remove(emitter));
+        job.emitters.add(emitter);
+
+        send(job, emitter, "progress");
+        // 订阅时任务可能已经结束，保证最终事件只发送一次
+        if (job.isFinished() && job.emitters.remove(emitter)) {
+            send(job, emitter, "done");
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    private Job find(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Задание не найдено: " + jobId);
+        }
+        return job;
+    }
+
+    private void run(Job job, Path file, ValidationOptions options) {
+        job.status = Status.RUNNING;
+        publish(job);
+        Status outcome = Status.FAILED;
+        try {
+            ValidationResponse response = validatorService.validateTemplate(
+                    new FileSystemResource(file), options, (processed, total, messages) -> {
+                        job.processed = processed;
+                        job.total = total;
+                        job.messages = messages;
+                        long now = System.nanoTime();
+                        if (now - job.lastEventAt > PROGRESS_INTERVAL_NANOS) {
+                            job.lastEventAt = now;
+                            publish(job);
+                        }
+                    });
+            job.messages = response.getStats().getTotalErrors();
+            job.result = response;
+            outcome = Status.DONE;
+        } catch (Exception e) {
+            job.error = e.getMessage();
+        } finally {
+            // 先写完成时间再发布结束状态：清理线程看到 DONE/FAILED 时 finishedAt 一定已经有效
+            job.finishedAt = clock.getAsLong();
+            job.status = outcome;
+            slots.release();
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+            }
+            for (SseEmitter emitter : job.emitters) {
+                if (job.emitters.remove(emitter)) {
+                    send(job, emitter, "done");
+                    emitter.complete();
+                }
+            }
+        }
+    }
+
+    private void publish(Job job) {
+        for (SseEmitter emitter : job.emitters) {
+            send(job, emitter, "progress");
+        }
+    }
+
+    private void send(Job job, SseEmitter emitter, String event) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(toStatus(job)));
+        } catch (IOException | IllegalStateException e) {
+            // 客户端已断开
+            job.emitters.remove(emitter);
+        }
+    }
+
+    private ValidationJobStatus toStatus(Job job) {
+        return new ValidationJobStatus(job.id, job.status.name(), job.processed, job.total, job.messages, job.error);
+    }
+
+    // 清理保留时间已过的已完成任务
+    private void purgeExpired() {
+        long now = clock.getAsLong();
+        jobs.values().removeIf(job -> job.isFinished() && now - job.finishedAt > retentionNanos);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.service;
+
+import com.example.tools.ValidationResponse;
+import com.example.tools.ValidationStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// 校验过程的 Micrometer 指标，名称统一以 validator. 开头，通过 /actuator/prometheus 导出
+@Component
+public class ValidationMetrics {
+
+    private final MeterRegistry registry;
+    private final Timer validateCached;
+    private final Timer validateParsed;
+    private final Timer openDom;
+    private final Timer openStreaming;
+    private final Timer parse;
+    private final Timer serialization;
+    private final DistributionSummary paragraphs;
+    private final Map<String, Timer> ruleTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> messageCounters = new ConcurrentHashMap<>();
+
+    public ValidationMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.validateCached = validateTimer("hit");
+        this.validateParsed = validateTimer("miss");
+        this.openDom = openTimer("dom");
+        this.openStreaming = openTimer("streaming");
+        this.parse = Timer.builder("validator.document.parse")
+                .description("Чтение абзацев и выполнение правил")
+                .register(registry);
+        this.serialization = Timer.builder("validator.response.serialization")
+                .description("Сериализация ValidationResponse в JSON и запись в ответ")
+                .register(registry);
+        this.paragraphs = DistributionSummary.builder("validator.document.paragraphs")
+                .description("Число абзацев в проверенном документе")
+                .baseUnit("paragraphs")
+                .register(registry);
+    }
+
+    private Timer validateTimer(String cache) {
+        return Timer.builder("validator.validate")
+                .description("Полная проверка документа, включая поиск в кэше")
+                .tag("cache", cache)
+                .register(registry);
+    }
+
+    private Timer openTimer(String reader) {
+        return Timer.builder("validator.document.open")
+                .description("Открытие документа и разбор стилей")
+                .tag("reader", reader)
+                .register(registry);
+    }
+
+    public void recordValidation(boolean cached, long nanos) {
+        (cached ? validateCached : validateParsed).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordOpen(boolean streaming, long nanos) {
+        (streaming ? openStreaming : openDom).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordParse(long nanos) {
+        parse.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordSerialization(long nanos) {
+        serialization.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // ruleNanos 是一个文档内每条规则累计的耗时，下标与 ruleNames 一致
+    public void recordRules(String[] ruleNames, long[] ruleNanos) {
+        for (int i = 0; i < ruleNames.length; i++) {
+            ruleTimers.computeIfAbsent(ruleNames[i], name -> Timer.builder("validator.rule")
+                            .description("Время одного правила на документ")
+                            .tag("rule", name)
+                            .register(registry))
+                    .record(ruleNanos[i], TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // 只统计真正解析过的文档，缓存命中不重复计数
+    public void recordDocument(ValidationResponse response) {
+        ValidationStats stats = response.getStats();
+        paragraphs.record(stats.getTotalParagraphs());
+        for (Map.Entry<String, Long> entry : stats.getErrorTypeCount().entrySet()) {
+            messageCounters.computeIfAbsent(entry.getKey(), code -> Counter.builder("validator.messages")
+                            .description("Найденные ошибки по коду ValidationMessage")
+                            .tag("code", code)
+                            .register(registry))
+                    .increment(entry.getValue());
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.service;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 单次校验的请求参数
+@Data
+@NoArgsConstructor
+public class ValidationOptions {
+    private boolean streaming; // 流式读取，不构建 XWPFDocument
+    private String lineage;    // 同一文档多次上传的标识，为 null 时不做增量校验
+    // 错误预算，0 表示不限制：达到 maxErrors 后停止扫描，某类错误达到 maxErrorsPerCode 后不再收集
+    private int maxErrors;
+    private int maxErrorsPerCode;
+    private boolean failFast;  // 发现第一个错误就停止，等价于 maxErrors = 1
+    private boolean parallel;  // 大文档按段落块并行检查，结果与顺序检查相同；有错误预算时不生效
+    private String profile;    // 规则集名称，为 null 时使用默认规则集
+
+    public ValidationOptions(boolean streaming, String lineage) {
+        this.streaming = streaming;
+        this.lineage = lineage;
+    }
+
+    // 批量校验时每个文档使用自己的 lineage（批次的 lineage 加文档名），其余参数相同
+    public ValidationOptions withLineage(String lineage) {
+        ValidationOptions copy = new ValidationOptions(streaming, lineage);
+        copy.setMaxErrors(maxErrors);
+        copy.setMaxErrorsPerCode(maxErrorsPerCode);
+        copy.setFailFast(failFast);
+        copy.setParallel(parallel);
+        copy.setProfile(profile);
+        return copy;
+    }
+
+    public int effectiveMaxErrors() {
+        return failFast ? 1 : maxErrors;
+    }
+
+    public boolean hasErrorBudget() {
+        return effectiveMaxErrors() > 0 || maxErrorsPerCode > 0;
+    }
+
+    // 不同预算下同一文档的结果不同，作为结果缓存 key 的一部分；也会出现在结果 id 中，不能含 '/'
+    public String errorBudgetKey() {
+        return hasErrorBudget() ? effectiveMaxErrors() + "-" + maxErrorsPerCode : "";
+    }
+}
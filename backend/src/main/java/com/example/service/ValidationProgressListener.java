@@ -0,0 +1,12 @@
+package com.example.service;
+
+// 校验进度回调，在校验线程中按段落调用，实现需要自行节流
+@FunctionalInterface
+public interface ValidationProgressListener {
+
+    ValidationProgressListener NONE = (processed, total, messages) -> {
+    };
+
+    // total 未知时为 -1（流式读取）
+    void onProgress(int processedParagraphs, int totalParagraphs, int messages);
+}
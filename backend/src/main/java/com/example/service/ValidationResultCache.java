@@ -0,0 +1,162 @@
+package com.example.service;
+
+import com.example.tools.ValidationMessage;
+import com.example.tools.ValidationResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// 按（文件内容 SHA-256，规则集及其版本，错误预算）缓存校验结果。
+// LRU + 按估算字节数限制总大小 + TTL
+@Component
+public class ValidationResultCache {
+
+    // ruleSetVersion 包含规则实现版本和规则集配置版本，配置修改后旧结果自然失效
+    public record Key(String contentHash, String profile, String ruleSetVersion, String errorBudget) {
+
+        // 对外的结果 id：内容哈希、规则集名称加错误预算，规则集版本总是取当前的
+        public String id() {
+            String id = contentHash + "." + profile;
+            return errorBudget.isEmpty() ? id : id + "-" + errorBudget;
+        }
+
+        // id 格式不对或规则集不存在时返回 null；versionOf 按规则集名称返回当前版本
+        public static Key fromId(String id, Function<String, String> versionOf) {
+            Matcher matcher = ID.matcher(id);
+            if (!matcher.matches()) {
+                return null;
+            }
+            String version = versionOf.apply(matcher.group(2));
+            if (version == null) {
+                return null;
+            }
+            String budget = matcher.group(3) == null ? "" : matcher.group(3);
+            return new Key(matcher.group(1), matcher.group(2), version, budget);
+        }
+    }
+
+    private static final Pattern ID = Pattern.compile("([0-9a-f]{64})\\.([A-Za-z0-9_]+)(?:-(\\d+-\\d+))?");
+
+    private record Entry(ValidationResponse response, long weight, long expiresAt) {
+    }
+
+    private final long maxWeight;
+    private final long ttlNanos;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ValidationResultCache(@Value("${validator.cache.max-size:64MB}") DataSize maxSize,
+                                 @Value("${validator.cache.ttl:30m}") Duration ttl) {
+        this.maxWeight = maxSize.toBytes();
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public ValidationResponse get(Key key) {
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt - System.nanoTime() > 0) {
+                    hits.incrementAndGet();
+                    return entry.response;
+                }
+                remove(key);
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    // 分页读取已有结果，不计入命中率
+    public synchronized ValidationResponse peek(Key key) {
+        Entry entry = entries.get(key);
+        return entry != null && entry.expiresAt - System.nanoTime() > 0 ? entry.response : null;
+    }
+
+    // 返回结果是否留在了缓存中，之后能否按 id 读取
+    public boolean put(Key key, ValidationResponse response) {
+        long entryWeight = weigh(response);
+        // 比整个缓存还大的结果不缓存
+        if (entryWeight > maxWeight) return false;
+
+        synchronized (this) {
+            Entry previous = entries.put(key, new Entry(response, entryWeight, System.nanoTime() + ttlNanos));
+            if (previous != null) {
+                weight -= previous.weight;
+            }
+            weight += entryWeight;
+
+            // 按 LRU 顺序淘汰，直到总大小不超过上限
+            long now = System.nanoTime();
+            Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+            while (it.hasNext() && weight > maxWeight) {
+                Map.Entry<Key, Entry> eldest = it.next();
+                if (eldest.getKey().equals(key)) continue;
+                it.remove();
+                weight -= eldest.getValue().weight;
+                if (eldest.getValue().expiresAt - now > 0) {
+                    evictions.incrementAndGet();
+                }
+            }
+        }
+        return true;
+    }
+
+    private void remove(Key key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            weight -= removed.weight;
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long weight() {
+        return weight;
+    }
+
+    // 粗略估算响应占用的堆大小
+    private static long weigh(ValidationResponse response) {
+        long size = 256;
+        for (ValidationMessage message : response.getMessages()) {
+            size += 64 + 2L * (length(message.getCode()) + length(message.getMessage())
+                    + length(message.getSuggestion()) + length(message.getContent()));
+        }
+        return size;
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
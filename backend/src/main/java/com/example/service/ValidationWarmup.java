@@ -0,0 +1,95 @@
+package com.example.service;
+
+import com.example.service.rules.RuleDispatcher;
+import com.example.service.rules.RuleProfiles;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+// 启动预热：用打包在 jar 中的 warmup/sample.docx 按 DOM、流式、并行三种方式各校验几遍并序列化结果，
+// 提前加载 XMLBeans 类型系统、POI、规则和 Jackson 序列化器，并让热点代码先被 JIT 编译。
+// Spring Boot 在所有 ApplicationRunner 执行完之后才把 readiness 切换为 ACCEPTING_TRAFFIC，
+// 因此 /actuator/health/readiness 在预热结束前一直是 OUT_OF_SERVICE。
+// 预热使用单独的服务实例（不缓存、指标写到独立的 registry），不影响线上的缓存和统计
+@Component
+public class ValidationWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ValidationWarmup.class);
+
+    static final String SAMPLE = "warmup/sample.docx";
+
+    private final TemplateValidatorService validator;
+    private final ObjectMapper objectMapper;
+    private final ApplicationContext context;
+    private final boolean enabled;
+    private final int iterations;
+    private final boolean exit;
+
+    public ValidationWarmup(RuleDispatcher ruleDispatcher, ParseLimiter parseLimiter, UploadGuard uploadGuard,
+                            ParallelValidation parallel, RuleProfiles ruleProfiles, ObjectMapper objectMapper,
+                            ApplicationContext context,
+                            @Value("${validator.warmup.enabled:true}") boolean enabled,
+                            @Value("${validator.warmup.iterations:3}") int iterations,
+                            @Value("${validator.warmup.exit:false}") boolean exit) {
+        this.validator = new TemplateValidatorService(ruleDispatcher,
+                new ValidationResultCache(DataSize.ofBytes(0), Duration.ZERO),
+                new IncrementalValidationStore(1, DataSize.ofMegabytes(1)), parseLimiter, uploadGuard,
+                new ValidationMetrics(new SimpleMeterRegistry()), parallel, ruleProfiles);
+        this.objectMapper = objectMapper;
+        this.context = context;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.exit = exit;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            long start = System.nanoTime();
+            try {
+                int validations = warmUp();
+                log.info("Validation warm-up finished: {} validations in {} ms",
+                        validations, (System.nanoTime() - start) / 1_000_000);
+            } catch (IOException | RuntimeException e) {
+                // 预热失败不影响启动，只是第一个请求会慢一些
+                log.warn("Validation warm-up failed", e);
+            }
+        }
+        // 生成 AppCDS 归档的训练运行：预热完成后退出，JVM 退出时写出已加载的类
+        if (exit) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    // 返回完成的校验次数
+    int warmUp() throws IOException {
+        ValidationOptions streaming = new ValidationOptions(true, null);
+        ValidationOptions parallel = new ValidationOptions(false, null);
+        parallel.setParallel(true);
+        List<ValidationOptions> modes = List.of(new ValidationOptions(false, null), streaming, parallel);
+
+        int validations = 0;
+        for (int i = 0; i < iterations; i++) {
+            for (ValidationOptions options : modes) {
+                TemplateValidatorService.Result result = validator.validateWithId(new ClassPathResource(SAMPLE), options);
+                objectMapper.writeValueAsBytes(result.response());
+                objectMapper.writeValueAsBytes(CompactResponses.firstPage(result, CompactResponses.DEFAULT_PAGE_SIZE));
+                validations++;
+            }
+        }
+        return validations;
+    }
+}
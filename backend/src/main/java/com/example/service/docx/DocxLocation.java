@@ -0,0 +1,11 @@
+package com.example.service.docx;
+
+// 段落所在的位置。页眉、页脚和脚注中的表格按所在部分计，只有正文中的表格为 TABLE
+public enum DocxLocation {
+    BODY,     // 正文中的直接段落
+    TABLE,    // 正文表格（包括嵌套表格）的单元格
+    HEADER,
+    FOOTER,
+    FOOTNOTE,
+    ENDNOTE
+}
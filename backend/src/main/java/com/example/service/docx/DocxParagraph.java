@@ -0,0 +1,64 @@
+package com.example.service.docx;
+
+import lombok.Value;
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPPr;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+@Value
+public class DocxParagraph {
+
+    // XWPFRun.text 为脚注/尾注引用生成的标记
+    private static final Pattern NOTE_REFERENCE = Pattern.compile("\\[(?:footnote|endnote)Ref:\\d+]");
+
+    String text;
+    String styleId;
+    ParagraphAlignment alignment; // 段落直接设置的对齐方式，未设置为 null
+    List<DocxRun> runs;
+    DocxLocation location;
+
+    public DocxParagraph(String text, String styleId, ParagraphAlignment alignment, List<DocxRun> runs) {
+        this(text, styleId, alignment, runs, DocxLocation.BODY);
+    }
+
+    public DocxParagraph(String text, String styleId, ParagraphAlignment alignment, List<DocxRun> runs,
+                         DocxLocation location) {
+        this.text = text;
+        this.styleId = styleId;
+        this.alignment = alignment;
+        this.runs = runs;
+        this.location = location;
+    }
+
+    public static DocxParagraph of(XWPFParagraph paragraph) {
+        return of(paragraph, DocxLocation.BODY);
+    }
+
+    public static DocxParagraph of(XWPFParagraph paragraph, DocxLocation location) {
+        List<XWPFRun> xwpfRuns = paragraph.getRuns();
+        List<DocxRun> runs = new ArrayList<>(xwpfRuns.size());
+        for (XWPFRun run : xwpfRuns) {
+            runs.add(DocxRun.of(run));
+        }
+
+        CTPPr pPr = paragraph.getCTP().getPPr();
+        ParagraphAlignment alignment = pPr != null && pPr.isSetJc() ? paragraph.getAlignment() : null;
+
+        return new DocxParagraph(textOf(paragraph), paragraph.getStyle(), alignment, runs, location);
+    }
+
+    // 脚注和尾注作为单独的段落读取：去掉 POI 附加在正文段落后的脚注内容和引用标记，与流式读取一致
+    private static String textOf(XWPFParagraph paragraph) {
+        String text = paragraph.getText();
+        String notes = paragraph.getFootnoteText();
+        if (!notes.isEmpty() && text.endsWith(notes)) {
+            text = text.substring(0, text.length() - notes.length());
+        }
+        return text.contains("Ref:") ? NOTE_REFERENCE.matcher(text).replaceAll("") : text;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.service.docx;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+// 按文档顺序逐段读取 docx，DOM 和流式两种实现共用同一套检查
+public interface DocxReader extends Closeable {
+
+    ResolvedStyleCache styles();
+
+    // 文档中的段落总数，事先不知道时返回 -1
+    default int paragraphCount() {
+        return -1;
+    }
+
+    // 返回下一个段落，读完返回 null
+    DocxParagraph next() throws IOException;
+}
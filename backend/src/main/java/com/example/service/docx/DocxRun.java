@@ -0,0 +1,21 @@
+package com.example.service.docx;
+
+import lombok.Value;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTRPr;
+
+@Value
+public class DocxRun {
+    String fontFamily; // 直接设置的字体，未设置为 null
+    int fontSize;      // 直接设置的字号，未设置为 -1
+    Boolean bold;      // 直接设置的加粗，未设置为 null
+
+    public static DocxRun of(XWPFRun run) {
+        Boolean bold = null;
+        CTRPr rPr = run.getCTR() != null ? run.getCTR().getRPr() : null;
+        if (rPr != null && rPr.isSetB()) {
+            bold = WordXml.onOff(rPr.getB().getVal());
+        }
+        return new DocxRun(run.getFontFamily(), run.getFontSize(), bold);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.service.docx;
+
+import lombok.Value;
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+
+// styles.xml 中一个样式自身的定义（不含继承），未设置的属性为 null / -1
+@Value
+public class DocxStyle {
+    String styleId;
+    String basedOn;
+    Boolean bold;
+    String fontFamily;
+    int fontSize;
+    ParagraphAlignment alignment;
+}
@@ -0,0 +1,149 @@
+package com.example.service.docx;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+// word/styles.xml 中的原始样式定义，继承关系由 ResolvedStyleCache 展开
+public class DocxStyles {
+
+    private static final DocxStyles EMPTY = new DocxStyles(Collections.emptyMap(), null, null);
+
+    private final Map<String, DocxStyle> styles;
+    private final DocxStyle docDefaults;
+    private final String defaultParagraphStyleId;
+
+    private DocxStyles(Map<String, DocxStyle> styles, DocxStyle docDefaults, String defaultParagraphStyleId) {
+        this.styles = styles;
+        this.docDefaults = docDefaults;
+        this.defaultParagraphStyleId = defaultParagraphStyleId;
+    }
+
+    public static DocxStyles empty() {
+        return EMPTY;
+    }
+
+    public DocxStyle get(String styleId) {
+        return styleId == null ? null : styles.get(styleId);
+    }
+
+    public Map<String, DocxStyle> getStyles() {
+        return styles;
+    }
+
+    // w:docDefaults，没有时为 null
+    public DocxStyle getDocDefaults() {
+        return docDefaults;
+    }
+
+    // w:default="1" 的段落样式，段落没有 pStyle 时使用
+    public String getDefaultParagraphStyleId() {
+        return defaultParagraphStyleId;
+    }
+
+    public static DocxStyles parse(InputStream in) throws IOException {
+        XMLStreamReader reader = WordXml.createReader(in);
+        try {
+            Map<String, DocxStyle> styles = new HashMap<>();
+            DocxStyle docDefaults = null;
+            String defaultParagraphStyleId = null;
+
+            int depth = 0;
+            // 当前样式（w:style 或 w:docDefaults）所在层级
+            int styleDepth = -1;
+            int rPrDepth = -1;
+            int pPrDepth = -1;
+            boolean inDocDefaults = false;
+            String styleId = null;
+            String basedOn = null;
+            Boolean bold = null;
+            String fontFamily = null;
+            int fontSize = -1;
+            String jc = null;
+
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    if (!WordXml.isWord(reader)) continue;
+                    switch (reader.getLocalName()) {
+                        case "style":
+                        case "docDefaults":
+                            if (styleDepth < 0) {
+                                styleDepth = depth;
+                                inDocDefaults = reader.getLocalName().equals("docDefaults");
+                                styleId = WordXml.attr(reader, "styleId");
+                                basedOn = null;
+                                bold = null;
+                                fontFamily = null;
+                                fontSize = -1;
+                                jc = null;
+                                if (!inDocDefaults && "paragraph".equals(WordXml.attr(reader, "type"))
+                                        && Boolean.TRUE.equals(onOffAttr(WordXml.attr(reader, "default")))) {
+                                    defaultParagraphStyleId = styleId;
+                                }
+                            }
+                            break;
+                        case "basedOn":
+                            if (styleDepth > 0 && depth == styleDepth + 1) basedOn = WordXml.val(reader);
+                            break;
+                        case "rPr":
+                            // w:style/w:rPr 或 w:docDefaults/w:rPrDefault/w:rPr
+                            if (styleDepth > 0 && depth == styleDepth + (inDocDefaults ? 2 : 1)) rPrDepth = depth;
+                            break;
+                        case "pPr":
+                            if (styleDepth > 0 && depth == styleDepth + (inDocDefaults ? 2 : 1)) pPrDepth = depth;
+                            break;
+                        case "b":
+                            if (rPrDepth > 0 && depth == rPrDepth + 1) bold = WordXml.onOff(WordXml.val(reader));
+                            break;
+                        case "rFonts":
+                            if (rPrDepth > 0 && depth == rPrDepth + 1) fontFamily = WordXml.attr(reader, "ascii");
+                            break;
+                        case "sz":
+                            if (rPrDepth > 0 && depth == rPrDepth + 1) fontSize = WordXml.fontSize(WordXml.val(reader));
+                            break;
+                        case "jc":
+                            if (pPrDepth > 0 && depth == pPrDepth + 1) jc = WordXml.val(reader);
+                            break;
+                        default:
+                            break;
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    if (depth == rPrDepth) {
+                        rPrDepth = -1;
+                    } else if (depth == pPrDepth) {
+                        pPrDepth = -1;
+                    } else if (depth == styleDepth) {
+                        DocxStyle style = new DocxStyle(styleId, basedOn, bold, fontFamily, fontSize, WordXml.alignment(jc));
+                        if (inDocDefaults) {
+                            docDefaults = style;
+                        } else if (styleId != null) {
+                            styles.put(styleId, style);
+                        }
+                        styleDepth = -1;
+                    }
+                    depth--;
+                }
+            }
+            return new DocxStyles(styles, docDefaults, defaultParagraphStyleId);
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        } finally {
+            try {
+                reader.close();
+            } catch (XMLStreamException ignored) {
+            }
+        }
+    }
+
+    // 属性形式的开关值，缺省表示关闭
+    private static Boolean onOffAttr(String value) {
+        return value == null ? Boolean.FALSE : WordXml.onOff(value);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.service.docx;
+
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+
+// 展开 basedOn 链和 docDefaults 之后的样式属性
+public record ResolvedStyle(boolean bold, String fontFamily, int fontSize, ParagraphAlignment alignment) {
+
+    public static final ResolvedStyle DEFAULT = new ResolvedStyle(false, null, -1, ParagraphAlignment.LEFT);
+}
@@ -0,0 +1,82 @@
+package com.example.service.docx;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+// 每个文档加载时展开一次所有样式，之后的检查只做一次 Map 查找
+public class ResolvedStyleCache {
+
+    private static final ResolvedStyleCache EMPTY = new ResolvedStyleCache(Map.of(), ResolvedStyle.DEFAULT);
+
+    private final Map<String, ResolvedStyle> styles;
+    private final ResolvedStyle defaultParagraphStyle;
+
+    private ResolvedStyleCache(Map<String, ResolvedStyle> styles, ResolvedStyle defaultParagraphStyle) {
+        this.styles = styles;
+        this.defaultParagraphStyle = defaultParagraphStyle;
+    }
+
+    public static ResolvedStyleCache empty() {
+        return EMPTY;
+    }
+
+    public static ResolvedStyleCache of(DocxStyles definitions) {
+        ResolvedStyle base = merge(ResolvedStyle.DEFAULT, definitions.getDocDefaults());
+        Map<String, ResolvedStyle> resolved = new HashMap<>();
+        for (String styleId : definitions.getStyles().keySet()) {
+            resolve(styleId, definitions, base, resolved);
+        }
+        ResolvedStyle defaultParagraphStyle = resolved.getOrDefault(definitions.getDefaultParagraphStyleId(), base);
+        return new ResolvedStyleCache(Map.copyOf(resolved), defaultParagraphStyle);
+    }
+
+    // 段落样式；没有 pStyle 或样式不存在时按 Word 的规则使用默认段落样式
+    public ResolvedStyle forParagraph(String styleId) {
+        if (styleId == null) return defaultParagraphStyle;
+        return styles.getOrDefault(styleId, defaultParagraphStyle);
+    }
+
+    private static ResolvedStyle resolve(String styleId, DocxStyles definitions, ResolvedStyle base,
+                                         Map<String, ResolvedStyle> resolved) {
+        ResolvedStyle cached = resolved.get(styleId);
+        if (cached != null) return cached;
+
+        // 沿 basedOn 找到最近一个已展开的祖先，循环引用时截断
+        Deque<DocxStyle> chain = new ArrayDeque<>();
+        Set<String> visited = new HashSet<>();
+        ResolvedStyle inherited = base;
+        String current = styleId;
+        while (current != null && visited.add(current)) {
+            ResolvedStyle known = resolved.get(current);
+            if (known != null) {
+                inherited = known;
+                break;
+            }
+            DocxStyle style = definitions.get(current);
+            if (style == null) break;
+            chain.push(style);
+            current = style.getBasedOn();
+        }
+
+        while (!chain.isEmpty()) {
+            DocxStyle style = chain.pop();
+            inherited = merge(inherited, style);
+            resolved.put(style.getStyleId(), inherited);
+        }
+        return resolved.getOrDefault(styleId, base);
+    }
+
+    private static ResolvedStyle merge(ResolvedStyle parent, DocxStyle style) {
+        if (style == null) return parent;
+        return new ResolvedStyle(
+                style.getBold() != null ? style.getBold() : parent.bold(),
+                style.getFontFamily() != null ? style.getFontFamily() : parent.fontFamily(),
+                style.getFontSize() != -1 ? style.getFontSize() : parent.fontSize(),
+                style.getAlignment() != null ? style.getAlignment() : parent.alignment()
+        );
+    }
+}
@@ -0,0 +1,353 @@
+package com.example.service.docx;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.poi.openxml4j.util.ZipSecureFile;
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+// 流式读取：通过 zip 中央目录直接定位 word/styles.xml 和各个内容部件拉取解析，
+// 图片等其他条目不解压；只保留当前段落，不构建 XMLBeans 树。
+// 依次读取正文、页眉、页脚、脚注和尾注（由 word/_rels/document.xml.rels 找到），
+// 每个部件只解析一遍，表格（包括嵌套表格）单元格中的段落在同一次遍历中读出。
+// 使用 POI 的 ZipSecureFile，解压过程中按压缩比和条目大小检查 zip 炸弹
+public class StreamingDocxReader implements DocxReader {
+
+    public static final String DOCUMENT_PART = "word/document.xml";
+    public static final String STYLES_PART = "word/styles.xml";
+    static final String DOCUMENT_RELS = "word/_rels/document.xml.rels";
+
+    private static final String RELS_NS = "http://schemas.openxmlformats.org/package/2006/relationships";
+
+    // 元素在段落所在结构中的角色，按层级记录在 kinds 中
+    private static final byte OTHER = 0;
+    private static final byte CONTAINER = 1; // body、hdr、ftr、footnote、endnote
+    private static final byte TABLE = 2;
+    private static final byte ROW = 3;
+    private static final byte CELL = 4;
+
+    private record Part(String name, DocxLocation location) {
+    }
+
+    private final ZipFile zip;
+    private final List<Part> parts;
+    private final ResolvedStyleCache styles;
+
+    private int nextPart;
+    private DocxLocation location;
+    private InputStream input;
+    private XMLStreamReader reader;
+
+    private int depth;
+    private byte[] kinds = new byte[32];
+
+    private StreamingDocxReader(ZipFile zip, List<Part> parts, ResolvedStyleCache styles) {
+        this.zip = zip;
+        this.parts = parts;
+        this.styles = styles;
+    }
+
+    public static StreamingDocxReader open(Path file) throws IOException {
+        ZipFile zip = new ZipSecureFile(file.toFile());
+        try {
+            ResolvedStyleCache styles = ResolvedStyleCache.empty();
+            ZipArchiveEntry stylesEntry = zip.getEntry(STYLES_PART);
+            if (stylesEntry != null) {
+                try (InputStream in = zip.getInputStream(stylesEntry)) {
+                    styles = ResolvedStyleCache.of(DocxStyles.parse(in));
+                }
+            }
+
+            if (zip.getEntry(DOCUMENT_PART) == null) {
+                throw new IOException("Не найден " + DOCUMENT_PART);
+            }
+            List<Part> parts = new ArrayList<>();
+            parts.add(new Part(DOCUMENT_PART, DocxLocation.BODY));
+            parts.addAll(relatedParts(zip));
+            StreamingDocxReader reader = new StreamingDocxReader(zip, parts, styles);
+            reader.openNextPart();
+            return reader;
+        } catch (IOException | RuntimeException e) {
+            zip.close();
+            throw e;
+        }
+    }
+
+    // 页眉、页脚按部件名排序，之后是脚注和尾注；关系中引用但不存在的部件忽略
+    private static List<Part> relatedParts(ZipFile zip) throws IOException {
+        ZipArchiveEntry rels = zip.getEntry(DOCUMENT_RELS);
+        if (rels == null) {
+            return List.of();
+        }
+        Map<DocxLocation, TreeSet<String>> targets = new EnumMap<>(DocxLocation.class);
+        try (InputStream in = zip.getInputStream(rels)) {
+            XMLStreamReader reader = WordXml.createReader(in);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() != XMLStreamConstants.START_ELEMENT
+                            || !RELS_NS.equals(reader.getNamespaceURI())
+                            || !reader.getLocalName().equals("Relationship")
+                            || "External".equals(reader.getAttributeValue(null, "TargetMode"))) {
+                        continue;
+                    }
+                    DocxLocation location = locationOf(reader.getAttributeValue(null, "Type"));
+                    String target = resolve(reader.getAttributeValue(null, "Target"));
+                    if (location != null && target != null && zip.getEntry(target) != null) {
+                        targets.computeIfAbsent(location, key -> new TreeSet<>()).add(target);
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+        List<Part> parts = new ArrayList<>();
+        targets.forEach((location, names) -> names.forEach(name -> parts.add(new Part(name, location))));
+        return parts;
+    }
+
+    private static DocxLocation locationOf(String type) {
+        if (type == null) return null;
+        if (type.endsWith("/header")) return DocxLocation.HEADER;
+        if (type.endsWith("/footer")) return DocxLocation.FOOTER;
+        if (type.endsWith("/footnotes")) return DocxLocation.FOOTNOTE;
+        if (type.endsWith("/endnotes")) return DocxLocation.ENDNOTE;
+        return null;
+    }
+
+    // 关系的 Target 相对于 word/document.xml，返回 zip 条目名
+    private static String resolve(String target) {
+        if (target == null) return null;
+        try {
+            String path = URI.create("/" + DOCUMENT_PART).resolve(target).getPath();
+            return path == null || path.length() < 2 ? null : path.substring(1);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // 关闭当前部件，打开下一个；没有更多部件时返回 false
+    private boolean openNextPart() throws IOException {
+        closePart();
+        if (nextPart == parts.size()) {
+            return false;
+        }
+        Part part = parts.get(nextPart++);
+        location = part.location();
+        depth = 0;
+        input = zip.getInputStream(zip.getEntry(part.name()));
+        reader = WordXml.createReader(input);
+        return true;
+    }
+
+    private void closePart() throws IOException {
+        try {
+            if (reader != null) {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        } finally {
+            reader = null;
+            if (input != null) {
+                input.close();
+                input = null;
+            }
+        }
+    }
+
+    @Override
+    public ResolvedStyleCache styles() {
+        return styles;
+    }
+
+    @Override
+    public DocxParagraph next() throws IOException {
+        try {
+            while (reader != null) {
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        depth++;
+                        byte parent = kinds[depth - 1];
+                        byte kind = WordXml.isWord(reader) ? kindOf(reader.getLocalName(), parent) : OTHER;
+                        if (kind < 0) {
+                            // 与 XWPFDocument 一致，只取容器和单元格下的直接段落
+                            return readParagraph(location == DocxLocation.BODY && parent == CELL
+                                    ? DocxLocation.TABLE : location);
+                        }
+                        if (depth == kinds.length) {
+                            kinds = Arrays.copyOf(kinds, depth * 2);
+                        }
+                        kinds[depth] = kind;
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        depth--;
+                    }
+                }
+                openNextPart();
+            }
+            return null;
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+
+    // 返回 -1 表示需要读取的段落
+    private static byte kindOf(String name, byte parent) {
+        switch (name) {
+            case "body":
+            case "hdr":
+            case "ftr":
+            case "footnote":
+            case "endnote":
+                return CONTAINER;
+            case "p":
+                return parent == CONTAINER || parent == CELL ? -1 : OTHER;
+            case "tbl":
+                return parent == CONTAINER || parent == CELL ? TABLE : OTHER;
+            case "tr":
+                return parent == TABLE ? ROW : OTHER;
+            case "tc":
+                return parent == ROW ? CELL : OTHER;
+            default:
+                return OTHER;
+        }
+    }
+
+    // 读取当前 w:p，返回时 reader 停在对应的结束标签
+    private DocxParagraph readParagraph(DocxLocation location) throws XMLStreamException {
+        int paragraphDepth = depth;
+        int nested = 0; // 文本框等嵌套段落不计入当前段落
+        int pPrDepth = -1;
+        int runDepth = -1;
+        int rPrDepth = -1;
+        boolean inText = false;
+
+        StringBuilder text = new StringBuilder();
+        String styleId = null;
+        ParagraphAlignment alignment = null;
+        List<DocxRun> runs = new ArrayList<>();
+
+        String fontFamily = null;
+        int fontSize = -1;
+        Boolean bold = null;
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT: {
+                    depth++;
+                    if (!WordXml.isWord(reader)) break;
+                    String name = reader.getLocalName();
+                    if (name.equals("p")) {
+                        nested++;
+                    }
+                    if (nested > 0) break;
+                    switch (name) {
+                        case "pPr":
+                            if (depth == paragraphDepth + 1) pPrDepth = depth;
+                            break;
+                        case "pStyle":
+                            if (pPrDepth > 0 && depth == pPrDepth + 1) styleId = WordXml.val(reader);
+                            break;
+                        case "jc":
+                            if (pPrDepth > 0 && depth == pPrDepth + 1) alignment = WordXml.alignment(WordXml.val(reader));
+                            break;
+                        case "r":
+                            if (runDepth < 0) {
+                                runDepth = depth;
+                                fontFamily = null;
+                                fontSize = -1;
+                                bold = null;
+                            }
+                            break;
+                        case "rPr":
+                            if (runDepth > 0 && depth == runDepth + 1) rPrDepth = depth;
+                            break;
+                        case "rFonts":
+                            if (rPrDepth > 0 && depth == rPrDepth + 1) fontFamily = WordXml.attr(reader, "ascii");
+                            break;
+                        case "sz":
+                            if (rPrDepth > 0 && depth == rPrDepth + 1) fontSize = WordXml.fontSize(WordXml.val(reader));
+                            break;
+                        case "b":
+                            if (rPrDepth > 0 && depth == rPrDepth + 1) bold = WordXml.onOff(WordXml.val(reader));
+                            break;
+                        case "t":
+                        case "delText":
+                            inText = runDepth > 0;
+                            break;
+                        case "tab":
+                            if (runDepth > 0 && depth == runDepth + 1) text.append('\t');
+                            break;
+                        case "br":
+                        case "cr":
+                            if (runDepth > 0 && depth == runDepth + 1) text.append('\n');
+                            break;
+                        default:
+                            break;
+                    }
+                    break;
+                }
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    if (inText && nested == 0) {
+                        text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT: {
+                    if (depth == paragraphDepth) {
+                        depth--;
+                        return new DocxParagraph(text.toString(), styleId, alignment, runs, location);
+                    }
+                    if (WordXml.isWord(reader)) {
+                        String name = reader.getLocalName();
+                        if (name.equals("p")) {
+                            nested--;
+                        } else if (nested == 0) {
+                            if (depth == runDepth) {
+                                runs.add(new DocxRun(fontFamily, fontSize, bold));
+                                runDepth = -1;
+                            } else if (depth == rPrDepth) {
+                                rPrDepth = -1;
+                            } else if (depth == pPrDepth) {
+                                pPrDepth = -1;
+                            } else if (name.equals("t") || name.equals("delText")) {
+                                inText = false;
+                            }
+                        }
+                    }
+                    depth--;
+                    break;
+                }
+                default:
+                    break;
+            }
+        }
+        return new DocxParagraph(text.toString(), styleId, alignment, runs, location);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            closePart();
+        } finally {
+            zip.close();
+        }
+    }
+}
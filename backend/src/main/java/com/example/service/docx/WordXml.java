@@ -0,0 +1,90 @@
+package com.example.service.docx;
+
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STJc;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STOnOff;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+
+// WordprocessingML 的 StAX 读取工具
+final class WordXml {
+
+    static final String NS = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    private WordXml() {
+    }
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        return factory;
+    }
+
+    static XMLStreamReader createReader(InputStream in) throws IOException {
+        try {
+            return FACTORY.createXMLStreamReader(in);
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+
+    static boolean isWord(XMLStreamReader reader) {
+        return NS.equals(reader.getNamespaceURI());
+    }
+
+    static String val(XMLStreamReader reader) {
+        return attr(reader, "val");
+    }
+
+    static String attr(XMLStreamReader reader, String localName) {
+        return reader.getAttributeValue(NS, localName);
+    }
+
+    // <w:b/> 不带 val 表示开启
+    static Boolean onOff(String val) {
+        if (val == null) return Boolean.TRUE;
+        switch (val) {
+            case "false":
+            case "off":
+            case "0":
+                return Boolean.FALSE;
+            default:
+                return Boolean.TRUE;
+        }
+    }
+
+    static Boolean onOff(STOnOff.Enum val) {
+        return onOff(val == null ? null : val.toString());
+    }
+
+    // w:sz 以半磅为单位，与 XWPFRun.getFontSize 保持一致取整
+    static int fontSize(String halfPoints) {
+        if (halfPoints == null) return -1;
+        try {
+            return Integer.parseInt(halfPoints.trim()) / 2;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    static ParagraphAlignment alignment(String jc) {
+        if (jc == null) return null;
+        switch (jc) {
+            case "start":
+                return ParagraphAlignment.LEFT;
+            case "end":
+                return ParagraphAlignment.RIGHT;
+            default:
+                STJc.Enum value = STJc.Enum.forString(jc);
+                return value == null ? null : ParagraphAlignment.valueOf(value.intValue());
+        }
+    }
+}
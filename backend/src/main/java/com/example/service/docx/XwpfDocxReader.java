@@ -0,0 +1,135 @@
+package com.example.service.docx;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.xwpf.usermodel.IBodyElement;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFEndnote;
+import org.apache.poi.xwpf.usermodel.XWPFFooter;
+import org.apache.poi.xwpf.usermodel.XWPFFootnote;
+import org.apache.poi.xwpf.usermodel.XWPFHeader;
+import org.apache.poi.xwpf.usermodel.XWPFHeaderFooter;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFStyles;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableCell;
+import org.apache.poi.xwpf.usermodel.XWPFTableRow;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// 基于 POI XWPFDocument 的读取方式，XML 部分加载为 DOM；
+// 包从文件以只读方式打开，图片等部分只在被读取时才解压，这里从不读取。
+// 段落顺序与 StreamingDocxReader 相同：正文（表格单元格在表格所在位置展开），
+// 然后是按部件名排序的页眉、页脚，最后是脚注和尾注
+public class XwpfDocxReader implements DocxReader {
+
+    private record Item(XWPFParagraph paragraph, DocxLocation location) {
+    }
+
+    private final OPCPackage pkg;
+    private final List<Item> items;
+    private final ResolvedStyleCache styles;
+    private int position;
+
+    private XwpfDocxReader(OPCPackage pkg, XWPFDocument document, ResolvedStyleCache styles) {
+        this.pkg = pkg;
+        this.styles = styles;
+        // 只收集段落引用，转换为 DocxParagraph 仍在 next 中按需进行
+        this.items = new ArrayList<>(document.getParagraphs().size());
+        collect(document.getBodyElements(), DocxLocation.BODY, items);
+        for (XWPFHeader header : byPartName(document.getHeaderList())) {
+            collect(header.getBodyElements(), DocxLocation.HEADER, items);
+        }
+        for (XWPFFooter footer : byPartName(document.getFooterList())) {
+            collect(footer.getBodyElements(), DocxLocation.FOOTER, items);
+        }
+        for (XWPFFootnote footnote : document.getFootnotes()) {
+            collect(footnote.getBodyElements(), DocxLocation.FOOTNOTE, items);
+        }
+        for (XWPFEndnote endnote : document.getEndnotes()) {
+            collect(endnote.getBodyElements(), DocxLocation.ENDNOTE, items);
+        }
+    }
+
+    // 与 XWPFDocument.getParagraphs 一样只取直接段落，表格逐行逐格递归展开；内容控件（sdt）不展开
+    private static void collect(List<IBodyElement> elements, DocxLocation location, List<Item> out) {
+        for (IBodyElement element : elements) {
+            if (element instanceof XWPFParagraph) {
+                out.add(new Item((XWPFParagraph) element, location));
+            } else if (element instanceof XWPFTable) {
+                DocxLocation cellLocation = location == DocxLocation.BODY ? DocxLocation.TABLE : location;
+                for (XWPFTableRow row : ((XWPFTable) element).getRows()) {
+                    for (XWPFTableCell cell : row.getTableCells()) {
+                        collect(cell.getBodyElements(), cellLocation, out);
+                    }
+                }
+            }
+        }
+    }
+
+    private static <T extends XWPFHeaderFooter> List<T> byPartName(List<T> parts) {
+        Map<String, T> sorted = new TreeMap<>();
+        for (T part : parts) {
+            sorted.putIfAbsent(part.getPackagePart().getPartName().getName(), part);
+        }
+        return new ArrayList<>(sorted.values());
+    }
+
+    public static XwpfDocxReader open(Path file) throws IOException {
+        OPCPackage pkg;
+        try {
+            pkg = OPCPackage.open(file.toFile(), PackageAccess.READ);
+        } catch (InvalidFormatException e) {
+            throw new IOException(e);
+        }
+        try {
+            XWPFDocument document = new XWPFDocument(pkg);
+            return new XwpfDocxReader(pkg, document, readStyles(document));
+        } catch (IOException | RuntimeException e) {
+            pkg.revert();
+            throw e;
+        }
+    }
+
+    private static ResolvedStyleCache readStyles(XWPFDocument document) throws IOException {
+        XWPFStyles styles = document.getStyles();
+        if (styles == null || styles.getPackagePart() == null) {
+            return ResolvedStyleCache.empty();
+        }
+        try (InputStream in = styles.getPackagePart().getInputStream()) {
+            return ResolvedStyleCache.of(DocxStyles.parse(in));
+        }
+    }
+
+    @Override
+    public ResolvedStyleCache styles() {
+        return styles;
+    }
+
+    @Override
+    public int paragraphCount() {
+        return items.size();
+    }
+
+    @Override
+    public DocxParagraph next() {
+        if (position == items.size()) {
+            return null;
+        }
+        Item item = items.get(position++);
+        return DocxParagraph.of(item.paragraph(), item.location());
+    }
+
+    @Override
+    public void close() {
+        // 只读打开的包用 revert 关闭，close 会尝试写回
+        pkg.revert();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.service.rules;
+
+import com.example.service.ValidationContext;
+import com.example.service.docx.DocxParagraph;
+import com.example.service.docx.DocxRun;
+import com.example.tools.ValidationMessage;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// 检查字体是否在规则集允许的范围内
+@Component
+@Order(100)
+public class FontRule implements ValidationRule {
+
+    @Override
+    public void onRun(DocxParagraph paragraph, String text, DocxRun run, ValidationContext context) {
+        // run 没有直接设置字体时取段落样式继承下来的字体
+        String fontName = run.getFontFamily() != null
+                ? run.getFontFamily()
+                : context.getStyles().forParagraph(paragraph.getStyleId()).fontFamily();
+        RuleProfile profile = context.getProfile();
+        if (fontName != null && !profile.acceptsFont(fontName) && context.accepts("FontMismatch")) {
+            context.report("FontMismatch:" + fontName + ":" + text, new ValidationMessage(
+                    "FontMismatch",
+                    "Обнаружен неправильный шрифт:" + fontName,
+                    profile.getFontSuggestion(),
+                    text
+            ));
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.service.rules;
+
+import com.example.service.ValidationContext;
+import com.example.service.docx.DocxParagraph;
+import com.example.service.docx.DocxRun;
+import com.example.tools.ValidationMessage;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// 字号，允许的范围来自规则集
+@Component
+@Order(200)
+public class FontSizeRule implements ValidationRule {
+
+    @Override
+    public void onRun(DocxParagraph paragraph, String text, DocxRun run, ValidationContext context) {
+        int fontSize = run.getFontSize() != -1
+                ? run.getFontSize()
+                : context.getStyles().forParagraph(paragraph.getStyleId()).fontSize();
+        RuleProfile profile = context.getProfile();
+        if (fontSize != -1 && !profile.acceptsFontSize(fontSize) && context.accepts("FontSizeMismatch")) {
+            context.report("FontSizeMismatch:" + fontSize + ":" + text, new ValidationMessage(
+                    "FontSizeMismatch",
+                    "Обнаружен неправильный размер шрифта:" + fontSize,
+                    profile.getFontSizeSuggestion(),
+                    text
+            ));
+        }
+    }
+}
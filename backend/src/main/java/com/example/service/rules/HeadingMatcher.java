@@ -0,0 +1,139 @@
+package com.example.service.rules;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Aho–Corasick 多模式匹配：一次扫描段落文本，找出其中出现的所有标题。
+// 构建后不可变，可在线程间共享
+public final class HeadingMatcher {
+
+    private final List<String> patterns;
+    // 每个状态的出边，keys 有序，用二分查找
+    private final char[][] keys;
+    private final int[][] targets;
+    private final int[] fail;
+    // 到达该状态时命中的模式（已合并失败链上的输出）
+    private final int[][] outputs;
+
+    private HeadingMatcher(List<String> patterns, char[][] keys, int[][] targets, int[] fail, int[][] outputs) {
+        this.patterns = patterns;
+        this.keys = keys;
+        this.targets = targets;
+        this.fail = fail;
+        this.outputs = outputs;
+    }
+
+    public static HeadingMatcher of(List<String> patterns) {
+        List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        List<List<Integer>> own = new ArrayList<>();
+        children.add(new TreeMap<>());
+        own.add(new ArrayList<>());
+
+        for (int i = 0; i < patterns.size(); i++) {
+            String pattern = patterns.get(i);
+            int state = 0;
+            for (int j = 0; j < pattern.length(); j++) {
+                Integer next = children.get(state).get(pattern.charAt(j));
+                if (next == null) {
+                    next = children.size();
+                    children.add(new TreeMap<>());
+                    own.add(new ArrayList<>());
+                    children.get(state).put(pattern.charAt(j), next);
+                }
+                state = next;
+            }
+            own.get(state).add(i);
+        }
+
+        int size = children.size();
+        char[][] keys = new char[size][];
+        int[][] targets = new int[size][];
+        for (int state = 0; state < size; state++) {
+            TreeMap<Character, Integer> edges = children.get(state);
+            keys[state] = new char[edges.size()];
+            targets[state] = new int[edges.size()];
+            int k = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                keys[state][k] = edge.getKey();
+                targets[state][k] = edge.getValue();
+                k++;
+            }
+        }
+
+        // 按 BFS 顺序计算失败指针，父状态的输出总是先于子状态合并完成
+        int[] fail = new int[size];
+        int[][] outputs = new int[size][];
+        outputs[0] = toArray(own.get(0));
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int target : targets[0]) {
+            queue.add(target);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            List<Integer> merged = new ArrayList<>(own.get(state));
+            for (int output : outputs[fail[state]]) {
+                merged.add(output);
+            }
+            outputs[state] = toArray(merged);
+
+            for (int k = 0; k < keys[state].length; k++) {
+                char c = keys[state][k];
+                int child = targets[state][k];
+                if (state != 0) {
+                    int f = fail[state];
+                    int next;
+                    while ((next = step(keys, targets, f, c)) < 0 && f != 0) {
+                        f = fail[f];
+                    }
+                    fail[child] = Math.max(next, 0);
+                }
+                queue.add(child);
+            }
+        }
+
+        return new HeadingMatcher(List.copyOf(patterns), keys, targets, fail, outputs);
+    }
+
+    public int size() {
+        return patterns.size();
+    }
+
+    public String pattern(int index) {
+        return patterns.get(index);
+    }
+
+    // 把 text 中出现的模式序号写入 found
+    public void match(CharSequence text, BitSet found) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int next;
+            while ((next = step(keys, targets, state, c)) < 0 && state != 0) {
+                state = fail[state];
+            }
+            state = Math.max(next, 0);
+            for (int output : outputs[state]) {
+                found.set(output);
+            }
+        }
+    }
+
+    private static int step(char[][] keys, int[][] targets, int state, char c) {
+        int k = Arrays.binarySearch(keys[state], c);
+        return k >= 0 ? targets[state][k] : -1;
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        int[] array = new int[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+}
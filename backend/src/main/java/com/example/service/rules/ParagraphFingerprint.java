@@ -0,0 +1,51 @@
+package com.example.service.rules;
+
+import com.example.service.docx.DocxParagraph;
+import com.example.service.docx.DocxRun;
+import com.example.service.docx.ResolvedStyle;
+
+// 段落指纹：覆盖规则会读取的所有输入（文本、所在位置、run 属性、段落及样式属性）
+final class ParagraphFingerprint {
+
+    private static final long OFFSET = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    private ParagraphFingerprint() {
+    }
+
+    static long of(DocxParagraph paragraph, String text, ResolvedStyle style) {
+        long h = OFFSET;
+        h = mix(h, text);
+        h = mix(h, paragraph.getLocation().ordinal());
+        h = mix(h, paragraph.getStyleId());
+        h = mix(h, paragraph.getAlignment() == null ? -1 : paragraph.getAlignment().ordinal());
+        h = mix(h, style.bold() ? 1 : 0);
+        h = mix(h, style.fontFamily());
+        h = mix(h, style.fontSize());
+        h = mix(h, style.alignment() == null ? -1 : style.alignment().ordinal());
+        for (DocxRun run : paragraph.getRuns()) {
+            h = mix(h, run.getFontFamily());
+            h = mix(h, run.getFontSize());
+            h = mix(h, run.getBold() == null ? -1 : run.getBold() ? 1 : 0);
+        }
+        // 最后做一次雪崩，减少 FNV 低位的相关性
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static long mix(long h, String value) {
+        if (value == null) return mix(h, -2);
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * PRIME;
+        }
+        return mix(h, value.length());
+    }
+
+    private static long mix(long h, int value) {
+        return (h ^ value) * PRIME;
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.service.rules;
+
+import com.example.service.ParagraphSnapshot;
+import com.example.service.ValidationContext;
+import com.example.service.docx.DocxParagraph;
+import com.example.service.docx.DocxReader;
+import com.example.service.docx.DocxRun;
+import com.example.service.docx.ResolvedStyleCache;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+
+// 单次遍历文档：每个段落的 run 只走一遍，依次分发给所有规则
+@Component
+public class RuleDispatcher {
+
+    private final ValidationRule[] rules;
+    private final String[] ruleNames;
+    private final String ruleSetVersion;
+
+    public RuleDispatcher(List<ValidationRule> rules) {
+        this.rules = rules.toArray(new ValidationRule[0]);
+        this.ruleNames = rules.stream()
+                .map(rule -> rule.getClass().getSimpleName())
+                .toArray(String[]::new);
+        this.ruleSetVersion = rules.stream()
+                .map(rule -> rule.getClass().getName())
+                .collect(Collectors.joining(","));
+    }
+
+    // 规则名称，下标与 dispatch 的 ruleNanos 一致
+    public String[] getRuleNames() {
+        return ruleNames.clone();
+    }
+
+    // 当前启用的规则集合，规则变化后旧的缓存结果不再命中
+    public String getRuleSetVersion() {
+        return ruleSetVersion;
+    }
+
+    public void dispatch(DocxReader reader, ValidationContext context) throws IOException {
+        dispatch(reader, context, null);
+    }
+
+    // ruleNanos 不为 null 时累计每条规则在本文档上的耗时（纳秒）；
+    // 每次调用规则后取一次时间，相邻两次之差记到刚执行的规则上
+    public void dispatch(DocxReader reader, ValidationContext context, long[] ruleNanos) throws IOException {
+        ResolvedStyleCache styles = reader.styles();
+        context.setStyles(styles);
+        long last = clock(ruleNanos);
+        for (int i = 0; i < rules.length; i++) {
+            rules[i].onStyles(styles, context);
+            last = lap(ruleNanos, i, last);
+        }
+
+        int total = reader.paragraphCount();
+        int processed = 0;
+        for (DocxParagraph paragraph = reader.next(); paragraph != null; paragraph = reader.next()) {
+            context.progress(++processed, total);
+            context.setCurrentParagraph(processed - 1);
+            String text = paragraph.getText().trim();
+
+            if (text.isEmpty() || !context.markParagraph(paragraph.getLocation(), text)) continue;
+
+            checkParagraph(paragraph, text, styles, context, ruleNanos);
+            // 错误预算用完，剩余段落不再检查
+            if (context.isStopped()) break;
+        }
+
+        documentEnd(context, ruleNanos);
+    }
+
+    // 并行模式：先顺序读出所有段落并去重，再按 chunkSize 切块在 ForkJoinPool 上检查，
+    // 每块写入自己的 ValidationContext，最后按文档顺序合并，结果与顺序模式完全一致。
+    // 有错误预算时需要按顺序判断何时停止，退回顺序模式
+    public void dispatchParallel(DocxReader reader, ValidationContext context, long[] ruleNanos,
+                                 ForkJoinPool pool, int chunkSize) throws IOException {
+        if (context.hasErrorBudget()) {
+            dispatch(reader, context, ruleNanos);
+            return;
+        }
+        ResolvedStyleCache styles = reader.styles();
+        context.setStyles(styles);
+        long last = clock(ruleNanos);
+        for (int i = 0; i < rules.length; i++) {
+            rules[i].onStyles(styles, context);
+            last = lap(ruleNanos, i, last);
+        }
+
+        // 读取和去重必须按顺序进行，检查部分才并行
+        int total = reader.paragraphCount();
+        int processed = 0;
+        List<Item> items = new ArrayList<>(Math.max(total, 16));
+        for (DocxParagraph paragraph = reader.next(); paragraph != null; paragraph = reader.next()) {
+            context.progress(++processed, total);
+            String text = paragraph.getText().trim();
+            if (text.isEmpty() || !context.markParagraph(paragraph.getLocation(), text)) continue;
+            items.add(new Item(processed - 1, paragraph, text));
+        }
+
+        List<Chunk> chunks = pool.invoke(new ChunkTask(items, 0, items.size(), Math.max(1, chunkSize), context));
+        for (Chunk chunk : chunks) {
+            context.merge(chunk.context());
+            for (ValidationRule rule : rules) {
+                rule.mergeChunk(chunk.context(), context);
+            }
+            if (ruleNanos != null) {
+                for (int i = 0; i < rules.length; i++) {
+                    ruleNanos[i] += chunk.ruleNanos()[i];
+                }
+            }
+        }
+        context.progress(processed, total);
+
+        documentEnd(context, ruleNanos);
+    }
+
+    private record Item(int index, DocxParagraph paragraph, String text) {
+    }
+
+    private record Chunk(ValidationContext context, long[] ruleNanos) {
+    }
+
+    // 对半拆分到不超过 chunkSize 个段落，返回的块保持文档顺序
+    private final class ChunkTask extends RecursiveTask<List<Chunk>> {
+        private final List<Item> items;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+        private final ValidationContext parent;
+
+        ChunkTask(List<Item> items, int from, int to, int chunkSize, ValidationContext parent) {
+            this.items = items;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+            this.parent = parent;
+        }
+
+        @Override
+        protected List<Chunk> compute() {
+            if (to - from <= chunkSize) {
+                ValidationContext chunk = parent.newChunk();
+                long[] nanos = new long[rules.length];
+                for (int i = from; i < to; i++) {
+                    Item item = items.get(i);
+                    chunk.setCurrentParagraph(item.index());
+                    checkParagraph(item.paragraph(), item.text(), parent.getStyles(), chunk, nanos);
+                }
+                List<Chunk> result = new ArrayList<>(1);
+                result.add(new Chunk(chunk, nanos));
+                return result;
+            }
+            int middle = (from + to) >>> 1;
+            ChunkTask left = new ChunkTask(items, from, middle, chunkSize, parent);
+            left.fork();
+            List<Chunk> right = new ChunkTask(items, middle, to, chunkSize, parent).compute();
+            List<Chunk> result = left.join();
+            result.addAll(right);
+            return result;
+        }
+    }
+
+    // 检查一个非空、未重复的段落；开启增量校验时未改动的段落直接复用上一次的结果
+    private void checkParagraph(DocxParagraph paragraph, String text, ResolvedStyleCache styles,
+                                ValidationContext context, long[] ruleNanos) {
+        long fingerprint = 0;
+        if (context.isSnapshotEnabled()) {
+            fingerprint = ParagraphFingerprint.of(paragraph, text, styles.forParagraph(paragraph.getStyleId()));
+            ParagraphSnapshot.Outcome cached = context.cachedOutcome(fingerprint);
+            if (cached != null) {
+                context.replay(cached);
+                long last = clock(ruleNanos);
+                for (int i = 0; i < rules.length; i++) {
+                    rules[i].onCachedParagraph(paragraph, text, context);
+                    last = lap(ruleNanos, i, last);
+                }
+                context.recordOutcome(fingerprint, cached);
+                return;
+            }
+        }
+
+        if (context.isSnapshotEnabled()) {
+            context.beginOutcome();
+        }
+        long last = clock(ruleNanos);
+        for (int i = 0; i < rules.length; i++) {
+            rules[i].onParagraph(paragraph, text, context);
+            last = lap(ruleNanos, i, last);
+        }
+        for (DocxRun run : paragraph.getRuns()) {
+            for (int i = 0; i < rules.length; i++) {
+                rules[i].onRun(paragraph, text, run, context);
+                last = lap(ruleNanos, i, last);
+            }
+        }
+        for (int i = 0; i < rules.length; i++) {
+            rules[i].onParagraphEnd(paragraph, text, context);
+            last = lap(ruleNanos, i, last);
+        }
+        if (context.isSnapshotEnabled()) {
+            context.recordOutcome(fingerprint);
+        }
+    }
+
+    private void documentEnd(ValidationContext context, long[] ruleNanos) {
+        // 提前结束时未扫描完整个文档，文档级检查（如缺少章节）没有意义
+        if (context.isStopped()) return;
+        context.setCurrentParagraph(-1);
+        long last = clock(ruleNanos);
+        for (int i = 0; i < rules.length; i++) {
+            rules[i].onDocumentEnd(context);
+            last = lap(ruleNanos, i, last);
+        }
+    }
+
+    private static long clock(long[] ruleNanos) {
+        return ruleNanos != null ? System.nanoTime() : 0;
+    }
+
+    private static long lap(long[] ruleNanos, int rule, long last) {
+        if (ruleNanos == null) return 0;
+        long now = System.nanoTime();
+        ruleNanos[rule] += now - last;
+        return now;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.service.rules;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.regex.Pattern;
+
+// 编译后的规则集：不可变，可在线程间共享。
+// 检查时只读取数组和基本类型，提示文本也在编译时生成，规则查找不分配对象
+public final class RuleProfile {
+
+    // 名称会出现在结果 id 中，只允许字母、数字和下划线
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9_]+");
+
+    private final String name;
+    private final String description;
+    // 名称加配置内容的摘要，配置变化后旧的缓存结果和增量快照不再命中
+    private final String version;
+    private final String[] fonts;
+    private final int minFontSize;
+    private final int maxFontSize;
+    private final HeadingMatcher headings;
+    private final String fontSuggestion;
+    private final String fontSizeSuggestion;
+
+    private RuleProfile(String name, String description, String version, String[] fonts,
+                        int minFontSize, int maxFontSize, HeadingMatcher headings) {
+        this.name = name;
+        this.description = description;
+        this.version = version;
+        this.fonts = fonts;
+        this.minFontSize = minFontSize;
+        this.maxFontSize = maxFontSize;
+        this.headings = headings;
+        this.fontSuggestion = "Пожалуйста, установите шрифт '" + String.join("' или '", fonts) + "'";
+        this.fontSizeSuggestion = "Пожалуйста, установите размер шрифта "
+                + (minFontSize == maxFontSize ? String.valueOf(minFontSize) : minFontSize + "-" + maxFontSize) + ".";
+    }
+
+    // 配置不合法时抛出 IllegalArgumentException
+    public static RuleProfile compile(RuleProfileDefinition definition) {
+        String name = definition.getName();
+        if (name == null || !NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Недопустимое имя профиля '" + name
+                    + "': разрешены только латинские буквы, цифры и '_'");
+        }
+        List<String> fonts = definition.getFonts() == null ? List.of() : definition.getFonts().stream()
+                .filter(font -> font != null && !font.isBlank())
+                .map(font -> font.trim().intern())
+                .distinct()
+                .toList();
+        if (fonts.isEmpty()) {
+            throw new IllegalArgumentException("Профиль '" + name + "': не указан ни один шрифт");
+        }
+        RuleProfileDefinition.FontSize fontSize = definition.getFontSize();
+        if (fontSize == null || fontSize.getMin() <= 0 || fontSize.getMin() > fontSize.getMax()) {
+            throw new IllegalArgumentException("Профиль '" + name + "': неверный диапазон размеров шрифта");
+        }
+        List<String> headings = definition.getHeadings() == null ? List.of() : definition.getHeadings().stream()
+                .filter(heading -> heading != null && !heading.isBlank())
+                .map(String::trim)
+                .distinct()
+                .toList();
+
+        String canonical = name + "\n" + String.join("\t", fonts) + "\n" + fontSize.getMin() + "-" + fontSize.getMax()
+                + "\n" + String.join("\t", headings);
+        return new RuleProfile(name, definition.getDescription(), name + "@" + digest(canonical),
+                fonts.toArray(new String[0]), fontSize.getMin(), fontSize.getMax(), HeadingMatcher.of(headings));
+    }
+
+    private static String digest(String canonical) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 6);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public boolean acceptsFont(String fontName) {
+        for (String font : fonts) {
+            if (font.equalsIgnoreCase(fontName)) return true;
+        }
+        return false;
+    }
+
+    public boolean acceptsFontSize(int fontSize) {
+        return fontSize >= minFontSize && fontSize <= maxFontSize;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public HeadingMatcher getHeadings() {
+        return headings;
+    }
+
+    public String getFontSuggestion() {
+        return fontSuggestion;
+    }
+
+    public String getFontSizeSuggestion() {
+        return fontSizeSuggestion;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.service.rules;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// 规则集配置文件（YAML 或 JSON）的内容，加载后编译为 RuleProfile
+@Data
+@NoArgsConstructor
+public class RuleProfileDefinition {
+    private String name;
+    private String description;
+    private List<String> fonts;     // 允许的字体，不区分大小写
+    private FontSize fontSize;      // 允许的字号范围（磅，包含两端）
+    private List<String> headings;  // 必需的章节标题
+
+    @Data
+    @NoArgsConstructor
+    public static class FontSize {
+        private int min;
+        private int max;
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.service.rules;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// 规则集配置：jar 中的 rules/*.yaml 加上 validator.rules.dir 目录中的 *.yaml、*.yml、*.json
+// （每个文件一个配置，目录中的同名配置覆盖内置配置）。
+// 全部配置编译后放在一个不可变的 Map 中整体替换，请求只做一次 volatile 读和一次 Map 查找。
+// reload-interval 大于 0 时后台定期检查目录，文件有变化就重新加载；加载失败时保留原来的配置
+@Component
+public class RuleProfiles {
+
+    private static final Logger log = LoggerFactory.getLogger(RuleProfiles.class);
+
+    // YAML 是 JSON 的超集，两种格式都用它解析
+    private static final ObjectMapper MAPPER = new ObjectMapper(new YAMLFactory());
+    private static final String BUNDLED = "classpath:rules/*.yaml";
+
+    private final Path dir;
+    private final String defaultName;
+    private volatile Map<String, RuleProfile> profiles;
+    private volatile String dirState;
+    private final ScheduledExecutorService watcher;
+
+    public RuleProfiles(@Value("${validator.rules.dir:}") String dir,
+                        @Value("${validator.rules.default-profile:default}") String defaultName,
+                        @Value("${validator.rules.reload-interval:10s}") Duration reloadInterval) throws IOException {
+        this.dir = dir.isBlank() ? null : Path.of(dir);
+        this.defaultName = defaultName;
+        this.dirState = dirState();
+        this.profiles = load();
+        if (!profiles.containsKey(defaultName)) {
+            throw new IllegalStateException("Default rule profile '" + defaultName + "' not found");
+        }
+
+        if (this.dir != null && !reloadInterval.isZero()) {
+            watcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "rule-profiles-watcher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long millis = reloadInterval.toMillis();
+            watcher.scheduleWithFixedDelay(this::reloadIfChanged, millis, millis, TimeUnit.MILLISECONDS);
+        } else {
+            watcher = null;
+        }
+    }
+
+    // 未指定时使用默认配置；名称不存在返回 400
+    public RuleProfile get(String name) {
+        RuleProfile profile = profiles.get(name == null ? defaultName : name);
+        if (profile == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Неизвестный профиль правил: " + name);
+        }
+        return profile;
+    }
+
+    // 按名称查找，不存在时返回 null
+    public RuleProfile find(String name) {
+        return profiles.get(name);
+    }
+
+    public Collection<RuleProfile> all() {
+        return profiles.values();
+    }
+
+    public String getDefaultName() {
+        return defaultName;
+    }
+
+    // 重新加载所有配置；任一配置不合法时抛出 IllegalArgumentException，原来的配置保持不变
+    public synchronized Collection<RuleProfile> reload() throws IOException {
+        String state = dirState();
+        Map<String, RuleProfile> loaded = load();
+        if (!loaded.containsKey(defaultName)) {
+            throw new IllegalArgumentException("Профиль по умолчанию '" + defaultName + "' не найден");
+        }
+        profiles = loaded;
+        dirState = state;
+        log.info("Rule profiles loaded: {}", loaded.keySet());
+        return loaded.values();
+    }
+
+    private void reloadIfChanged() {
+        try {
+            if (!dirState().equals(dirState)) {
+                reload();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Rule profiles reload failed, keeping previous profiles", e);
+        }
+    }
+
+    private Map<String, RuleProfile> load() throws IOException {
+        Map<String, RuleProfile> loaded = new HashMap<>();
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources(BUNDLED)) {
+            try (InputStream in = resource.getInputStream()) {
+                put(loaded, in, resource.getFilename(), false);
+            }
+        }
+        for (Path file : files()) {
+            try (InputStream in = Files.newInputStream(file)) {
+                put(loaded, in, file.toString(), true);
+            }
+        }
+        return Map.copyOf(loaded);
+    }
+
+    private static void put(Map<String, RuleProfile> loaded, InputStream in, String source, boolean override) throws IOException {
+        RuleProfile profile;
+        try {
+            profile = RuleProfile.compile(MAPPER.readValue(in, RuleProfileDefinition.class));
+        } catch (IllegalArgumentException | IOException e) {
+            throw new IllegalArgumentException(source + ": " + e.getMessage(), e);
+        }
+        RuleProfile previous = loaded.put(profile.getName(), profile);
+        if (previous != null && !override) {
+            throw new IllegalArgumentException(source + ": профиль '" + profile.getName() + "' уже определён");
+        }
+    }
+
+    private List<Path> files() throws IOException {
+        if (dir == null || !Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> stream = Files.list(dir)) {
+            return stream
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.endsWith(".yaml") || name.endsWith(".yml") || name.endsWith(".json");
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    // 目录中配置文件的名称、大小和修改时间，用于判断是否需要重新加载
+    private String dirState() throws IOException {
+        List<String> state = new ArrayList<>();
+        for (Path file : files()) {
+            state.add(file.getFileName() + ":" + Files.size(file) + ":" + Files.getLastModifiedTime(file).toMillis());
+        }
+        return String.join(",", state);
+    }
+
+    // 不经过 Spring 时（测试、基准、ValidationContext 的默认值）使用的内置默认配置
+    public static RuleProfile bundledDefault() {
+        return BundledDefault.PROFILE;
+    }
+
+    private static final class BundledDefault {
+        static final RuleProfile PROFILE = loadBundledDefault();
+
+        private static RuleProfile loadBundledDefault() {
+            try (InputStream in = RuleProfiles.class.getResourceAsStream("/rules/default.yaml")) {
+                return RuleProfile.compile(MAPPER.readValue(in, RuleProfileDefinition.class));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (watcher != null) {
+            watcher.shutdownNow();
+        }
+    }
+}
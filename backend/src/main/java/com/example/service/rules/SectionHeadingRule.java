@@ -0,0 +1,133 @@
+package com.example.service.rules;
+
+import com.example.service.ValidationContext;
+import com.example.service.docx.DocxLocation;
+import com.example.service.docx.DocxParagraph;
+import com.example.service.docx.DocxRun;
+import com.example.service.docx.ResolvedStyleCache;
+import com.example.tools.ValidationMessage;
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.BitSet;
+
+// 必需章节标题（来自规则集，已编译为自动机）：检查是否加粗、是否左对齐，以及文档中是否存在
+@Component
+@Order(300)
+public class SectionHeadingRule implements ValidationRule {
+
+    // 每个文档的状态：已出现的标题，以及当前段落命中的标题（复用避免每段分配）
+    private static final class SectionState {
+        final BitSet found = new BitSet();
+        final BitSet hits = new BitSet();
+    }
+
+    @Override
+    public void onParagraphEnd(DocxParagraph paragraph, String text, ValidationContext context) {
+        // 章节标题只出现在正文中，表格、页眉页脚和脚注里的同名文本不算
+        if (paragraph.getLocation() != DocxLocation.BODY) return;
+        SectionState state = context.state(this, SectionState::new);
+        state.hits.clear();
+        context.getProfile().getHeadings().match(text, state.hits);
+        if (state.hits.isEmpty()) return;
+
+        state.found.or(state.hits);
+        checkBoldText(context.getStyles(), paragraph, text, state.hits, context);
+    }
+
+    @Override
+    public void onCachedParagraph(DocxParagraph paragraph, String text, ValidationContext context) {
+        // 错误已复用，只需记录出现过的标题
+        if (paragraph.getLocation() != DocxLocation.BODY) return;
+        SectionState state = context.state(this, SectionState::new);
+        context.getProfile().getHeadings().match(text, state.found);
+    }
+
+    @Override
+    public void mergeChunk(ValidationContext chunk, ValidationContext context) {
+        context.state(this, SectionState::new).found.or(chunk.state(this, SectionState::new).found);
+    }
+
+    @Override
+    public void onDocumentEnd(ValidationContext context) {
+        checkIsExitInDocument(context.state(this, SectionState::new).found, context);
+    }
+
+    // 检查文本是否加粗和是否左对齐
+    private void checkBoldText(ResolvedStyleCache styles, DocxParagraph paragraph, String paragraphText, BitSet hits, ValidationContext context) {
+        boolean isBold = isParagraphBold(paragraph, styles);
+        ParagraphAlignment effectiveAlign = getEffectiveAlignment(paragraph, styles);
+
+        for (int i = hits.nextSetBit(0); i >= 0; i = hits.nextSetBit(i + 1)) {
+            String expectedBoldText = context.getProfile().getHeadings().pattern(i);
+
+            // 如果包含了文本，但未加粗，返回错误
+            if (!isBold && context.accepts("BoldError")) {
+                context.report("BoldError:" + expectedBoldText + ":" + paragraphText, new ValidationMessage(
+                        "BoldError",
+                        "Жирный текст неверен, нежирный текст обнаружен",
+                        "Пожалуйста, сделайте текст жирным.",
+                        paragraphText
+                ));
+            }
+
+            // 检查段落是否是左对齐
+            if (effectiveAlign != ParagraphAlignment.LEFT && context.accepts("AlignmentError")) {
+                context.report("AlignmentError:" + expectedBoldText + ":" + paragraphText, new ValidationMessage(
+                        "AlignmentError",
+                        "Жирный текст должен быть выровнен по левому краю.",
+                        "Пожалуйста, выровняйте жирный текст по левому краю.",
+                        paragraphText
+                ));
+            }
+        }
+    }
+
+    // 检查文本是否存在
+    private void checkIsExitInDocument(BitSet found, ValidationContext context) {
+        HeadingMatcher headings = context.getProfile().getHeadings();
+        for (int i = found.nextClearBit(0); i < headings.size() && context.accepts("ContentMismatch"); i = found.nextClearBit(i + 1)) {
+            String expectedBoldText = headings.pattern(i);
+            context.report("ContentMismatch:" + expectedBoldText + ":", new ValidationMessage(
+                    "ContentMismatch",
+                    "Отсутствует текст:'" + expectedBoldText + "'",
+                    "Убедитесь, что документ содержит текст. '" + expectedBoldText + "'",
+                    ""
+            ));
+        }
+    }
+
+    boolean isParagraphBold(DocxParagraph paragraph, ResolvedStyleCache styles) {
+        boolean hasRun = false;
+        boolean hasAnyBoldRun = false;
+
+        for (DocxRun run : paragraph.getRuns()) {
+            hasRun = true;
+            if (run.getBold() != null) {
+                if (!run.getBold()) {
+                    return false; // 明确取消加粗，优先级最高
+                } else {
+                    hasAnyBoldRun = true;
+                }
+            }
+        }
+
+        // 所有 run 都没设置，检查样式（包括 basedOn 继承和 docDefaults）
+        if (!hasRun || !hasAnyBoldRun) {
+            return styles.forParagraph(paragraph.getStyleId()).bold();
+        }
+
+        return true;
+    }
+
+    ParagraphAlignment getEffectiveAlignment(DocxParagraph paragraph, ResolvedStyleCache styles) {
+        // 如果段落本身有设置，直接返回
+        if (paragraph.getAlignment() != null) {
+            return paragraph.getAlignment();
+        }
+
+        // 否则取段落样式展开后的对齐方式，默认左对齐
+        return styles.forParagraph(paragraph.getStyleId()).alignment();
+    }
+}
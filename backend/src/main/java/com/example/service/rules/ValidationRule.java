@@ -0,0 +1,40 @@
+package com.example.service.rules;
+
+import com.example.service.ValidationContext;
+import com.example.service.docx.DocxParagraph;
+import com.example.service.docx.DocxRun;
+import com.example.service.docx.ResolvedStyleCache;
+
+// 校验规则，按需覆盖关心的事件。
+// 规则是单例，所有按文档的状态都放在 ValidationContext 中
+public interface ValidationRule {
+
+    // 文档开始，样式已展开
+    default void onStyles(ResolvedStyleCache styles, ValidationContext context) {
+    }
+
+    // 每个非空且未重复的段落，text 为去掉首尾空白的段落文本
+    default void onParagraph(DocxParagraph paragraph, String text, ValidationContext context) {
+    }
+
+    // 段落中的每个 run，按顺序调用
+    default void onRun(DocxParagraph paragraph, String text, DocxRun run, ValidationContext context) {
+    }
+
+    // 段落的所有 run 分发完毕
+    default void onParagraphEnd(DocxParagraph paragraph, String text, ValidationContext context) {
+    }
+
+    // 段落与上一次上传时相同，错误直接复用，不再分发 run。
+    // 有文档级状态的规则（例如已出现的标题）在这里更新状态
+    default void onCachedParagraph(DocxParagraph paragraph, String text, ValidationContext context) {
+    }
+
+    // 并行模式下，段落块处理完后按文档顺序调用，把块中的文档级状态合并到 context
+    default void mergeChunk(ValidationContext chunk, ValidationContext context) {
+    }
+
+    // 所有段落处理完毕
+    default void onDocumentEnd(ValidationContext context) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.tools;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 批量校验 NDJSON 中的一行：单个文档的结果
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchValidationItem {
+    private String type = "document";
+    private int index;                  // 文档在批次中的序号（按提交顺序）
+    private String fileName;
+    private ValidationResponse response; // 失败时为 null
+    private String error;
+
+    public BatchValidationItem(int index, String fileName, ValidationResponse response, String error) {
+        this.index = index;
+        this.fileName = fileName;
+        this.response = response;
+        this.error = error;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.tools;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 批量校验 NDJSON 的最后一行：整个批次的汇总
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchValidationSummary {
+    private String type = "summary";
+    private int documents;        // 文档总数
+    private int failed;           // 无法打开或校验失败的文档数
+    private ValidationStats stats; // 所有成功文档的统计之和
+
+    public BatchValidationSummary(int documents, int failed, ValidationStats stats) {
+        this.documents = documents;
+        this.failed = failed;
+        this.stats = stats;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.tools;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 紧凑格式中的一条错误：引用模板 id，只带段落序号和截断后的段落文本
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompactMessage {
+    private int template;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer paragraph; // 文档级错误为 null
+    private String snippet;
+}
@@ -0,0 +1,23 @@
+package com.example.tools;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// 紧凑、分页的校验结果：
+// 模板字典只在第一页返回；nextCursor 为 null 表示没有更多消息
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CompactValidationResponse {
+    private String resultId;                // 用于 /results/{resultId}/messages?after= 获取后续页
+    private List<MessageTemplate> templates;
+    private List<CompactMessage> messages;
+    private ValidationStats stats;
+    private int totalMessages;
+    private String nextCursor;
+}
@@ -0,0 +1,16 @@
+package com.example.tools;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 紧凑格式中的消息模板：code、message、suggestion 相同的错误共用一个模板
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageTemplate {
+    private int id;
+    private String code;
+    private String message;
+    private String suggestion;
+}
@@ -0,0 +1,15 @@
+package com.example.tools;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 规则集的名称、版本和说明；版本随配置内容变化
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RuleProfileInfo {
+    private String name;
+    private String version;
+    private String description;
+}
@@ -0,0 +1,17 @@
+package com.example.tools;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ValidationJobStatus {
+    private String jobId;
+    private String status;              // QUEUED / RUNNING / DONE / FAILED
+    private int processedParagraphs;    // 已处理段落数
+    private int totalParagraphs;        // 段落总数，流式读取时为 -1
+    private int messages;               // 目前发现的错误数
+    private String error;
+}
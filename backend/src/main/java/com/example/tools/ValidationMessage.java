@@ -1,7 +1,9 @@
 package com.example.tools;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.With;
 
 @Data
 @AllArgsConstructor
@@ -10,4 +12,12 @@ public class ValidationMessage {
     public String message;
     public String suggestion;
     public String content;
+    // 段落在文档中的序号（从 0 开始，包括空段落）；文档级错误为 null
+    @With
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Integer paragraph;
+
+    public ValidationMessage(String code, String message, String suggestion, String content) {
+        this(code, message, suggestion, content, null);
+    }
 }
@@ -14,6 +14,7 @@ public class ValidationStats {
     private Map<String, Long> errorTypeCount = new HashMap<>(); // 错误类型 -> 出现次数
     private int totalParagraphs; // 总段落数
     private int totalErrors; // 总错误数
+    private boolean lowerBound; // 触发错误预算提前结束时为 true，以上计数只是下限
 
 
 }
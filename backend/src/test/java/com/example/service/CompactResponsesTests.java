@@ -0,0 +1,126 @@
+package com.example.service;
+
+import com.example.tools.CompactMessage;
+import com.example.tools.CompactValidationResponse;
+import com.example.tools.MessageTemplate;
+import com.example.tools.ValidationMessage;
+import com.example.tools.ValidationResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompactResponsesTests {
+
+    @Test
+    void pagesReassembleToFullResult() throws Exception {
+        ValidationResultCache cache = new ValidationResultCache(DataSize.ofMegabytes(1), Duration.ofMinutes(1));
+        TemplateValidatorService service = TestDocuments.service(cache);
+        MockMultipartFile file = TestDocuments.thesis("compact", "Arial", 10, 3);
+
+        TemplateValidatorService.Result result = service.validateWithId(file, new ValidationOptions());
+        List<ValidationMessage> full = result.response().getMessages();
+        assertSame(result.response(), service.findResult(result.id()));
+
+        CompactValidationResponse page = CompactResponses.page(result.id(), result.response(), null, 4);
+        List<MessageTemplate> templates = page.getTemplates();
+        // 每个段落的字体错误消息相同，只有一个模板
+        assertEquals(templates.size(), full.stream().map(m -> m.getCode() + m.getMessage() + m.getSuggestion()).distinct().count());
+        assertTrue(templates.size() < full.size());
+
+        List<CompactMessage> collected = new ArrayList<>(page.getMessages());
+        while (page.getNextCursor() != null) {
+            page = CompactResponses.page(result.id(), service.findResult(result.id()), page.getNextCursor(), 4);
+            assertNull(page.getTemplates());
+            collected.addAll(page.getMessages());
+        }
+        assertEquals(full.size(), collected.size());
+        assertEquals(full.size(), page.getTotalMessages());
+        for (int i = 0; i < full.size(); i++) {
+            ValidationMessage message = full.get(i);
+            MessageTemplate template = templates.get(collected.get(i).getTemplate());
+            assertEquals(message.getCode(), template.getCode());
+            assertEquals(message.getMessage(), template.getMessage());
+            assertEquals(message.getParagraph(), collected.get(i).getParagraph());
+            assertEquals(message.getContent(), collected.get(i).getSnippet());
+        }
+        // 第一个正文段落（标题之后）就是第一个错误
+        assertEquals(1, full.get(0).getParagraph());
+
+        assertThrows(ResponseStatusException.class, () -> CompactResponses.page(result.id(), result.response(), "x", 4));
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> CompactResponses.page(result.id(), result.response(), String.valueOf(full.size() + 1), 4));
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+    }
+
+    @Test
+    void resultTooLargeForCacheIsReturnedWholeWithoutCursor() throws Exception {
+        // 缓存只有 1 字节，结果放不进去，之后按 id 无法读取
+        ValidationResultCache cache = new ValidationResultCache(DataSize.ofBytes(1), Duration.ofMinutes(1));
+        TemplateValidatorService service = TestDocuments.service(cache);
+        MockMultipartFile file = TestDocuments.thesis("uncached", "Arial", 10, 6);
+
+        TemplateValidatorService.Result result = service.validateWithId(file, new ValidationOptions());
+        assertFalse(result.retained());
+        assertNull(service.findResult(result.id()));
+
+        int total = result.response().getMessages().size();
+        assertTrue(total > 2);
+        CompactValidationResponse page = CompactResponses.firstPage(result, 2);
+        assertNull(page.getNextCursor());
+        assertEquals(total, page.getMessages().size());
+        assertEquals(total, page.getTotalMessages());
+
+        // 留在缓存中的结果照常分页
+        ValidationResultCache large = new ValidationResultCache(DataSize.ofMegabytes(1), Duration.ofMinutes(1));
+        TemplateValidatorService.Result cached = TestDocuments.service(large).validateWithId(file, new ValidationOptions());
+        assertTrue(cached.retained());
+        CompactValidationResponse first = CompactResponses.firstPage(cached, 2);
+        assertEquals(2, first.getMessages().size());
+        assertEquals("2", first.getNextCursor());
+    }
+
+    @Test
+    void resultIdIncludesErrorBudget() throws Exception {
+        ValidationResultCache cache = new ValidationResultCache(DataSize.ofMegabytes(1), Duration.ofMinutes(1));
+        TemplateValidatorService service = TestDocuments.service(cache);
+        MockMultipartFile file = TestDocuments.thesis("budget-id", "Arial", 10, 3);
+
+        ValidationOptions options = new ValidationOptions();
+        options.setMaxErrorsPerCode(1);
+        TemplateValidatorService.Result capped = service.validateWithId(file, options);
+        TemplateValidatorService.Result full = service.validateWithId(file, new ValidationOptions());
+
+        assertTrue(capped.id().endsWith("-0-1"), capped.id());
+        assertSame(capped.response(), service.findResult(capped.id()));
+        assertSame(full.response(), service.findResult(full.id()));
+        assertNull(service.findResult("../" + full.id()));
+        assertNull(service.findResult(full.id() + "-x"));
+    }
+
+    @Test
+    void snippetIsTruncated() {
+        String text = "а".repeat(CompactResponses.SNIPPET_LENGTH + 20);
+        String snippet = CompactResponses.snippet(text);
+        assertEquals(CompactResponses.SNIPPET_LENGTH + 1, snippet.length());
+        assertTrue(snippet.endsWith("…"));
+        assertEquals("короткий", CompactResponses.snippet("короткий"));
+
+        ValidationResponse response = new ValidationResponse(List.of(new ValidationMessage("FontMismatch", "m", "s", text, 7)), null);
+        CompactMessage message = CompactResponses.page("id", response, null, 10).getMessages().get(0);
+        assertEquals(snippet, message.getSnippet());
+        assertEquals(7, message.getParagraph());
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.service;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 压测：截止日前的突发提交，请求经过真实的 Tomcat 请求线程、ParseLimiter 和 TemplateValidatorService。
+// 客户端同时发起的请求多于 Tomcat 默认的 200 个请求线程，每个请求的上传内容延迟 UPLOAD_MILLIS 才开始发送，
+// 模拟慢速上传占住请求线程；子类分别按 spring.threads.virtual.enabled 的两种取值启动应用。
+// 结果缓存关闭，每个请求都真正解析一次。默认不跑：mvn test -Pload-test
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {"validator.cache.max-size=0", "validator.warmup.enabled=false"})
+abstract class ExecutionModeLoadTests {
+
+    private static final Logger log = LoggerFactory.getLogger(ExecutionModeLoadTests.class);
+
+    private static final int SUBMISSIONS = 2000;
+    private static final int CLIENTS = 400;
+    private static final long UPLOAD_MILLIS = 20;
+    private static final String BOUNDARY = "load-test-boundary";
+
+    private static byte[] body;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    @Qualifier("validationJobExecutor")
+    protected AsyncTaskExecutor jobExecutor;
+
+    @Autowired
+    private ParseLimiter parseLimiter;
+
+    @BeforeAll
+    static void prepare() throws Exception {
+        MockMultipartFile file = TestDocuments.thesis("load", "Arial", 12, 5);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"load.docx\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        out.write(file.getBytes());
+        out.write(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        body = out.toByteArray();
+    }
+
+    protected void burst(String mode) throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        URI uri = URI.create("http://localhost:" + port + "/api/validate/docx");
+        List<Callable<HttpResponse<String>>> tasks = new ArrayList<>();
+        for (int i = 0; i < SUBMISSIONS; i++) {
+            tasks.add(() -> client.send(HttpRequest.newBuilder(uri)
+                            .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                            .POST(HttpRequest.BodyPublishers.ofInputStream(ExecutionModeLoadTests::slowUpload))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString()));
+        }
+
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            long start = System.nanoTime();
+            List<Future<HttpResponse<String>>> results = clients.invokeAll(tasks);
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            String expected = null;
+            for (Future<HttpResponse<String>> result : results) {
+                HttpResponse<String> response = result.get();
+                assertEquals(200, response.statusCode(), response.body());
+                if (expected == null) {
+                    expected = response.body();
+                    assertTrue(expected.contains("FontMismatch"), expected);
+                }
+                assertEquals(expected, response.body());
+            }
+            assertEquals(0, parseLimiter.getQueueLength());
+            log.info("{}: {} submissions in {} ms ({}/s), parse limit {}, job executor {}",
+                    mode, SUBMISSIONS, elapsed, Math.round(SUBMISSIONS * 1000.0 / Math.max(elapsed, 1)),
+                    parseLimiter.getMaxConcurrent(), jobExecutor.getClass().getSimpleName());
+        } finally {
+            clients.shutdown();
+            clients.awaitTermination(60, TimeUnit.SECONDS);
+        }
+    }
+
+    // 第一次读取前等待 UPLOAD_MILLIS：请求头已经发出，服务端请求线程在读取上传内容时阻塞
+    private static InputStream slowUpload() {
+        return new FilterInputStream(new ByteArrayInputStream(body)) {
+            private boolean started;
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (!started) {
+                    started = true;
+                    try {
+                        Thread.sleep(UPLOAD_MILLIS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException();
+                    }
+                }
+                return super.read(b, off, len);
+            }
+        };
+    }
+}
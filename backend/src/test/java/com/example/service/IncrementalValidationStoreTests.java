@@ -0,0 +1,52 @@
+package com.example.service;
+
+import com.example.tools.ValidationMessage;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IncrementalValidationStoreTests {
+
+    @Test
+    void evictsOldestSnapshotsByTotalSize() {
+        ParagraphSnapshot snapshot = snapshot(100);
+        long size = snapshot.getWeight();
+        // 个数上限足够大，只有总大小起作用：最多放下两个快照
+        IncrementalValidationStore store = new IncrementalValidationStore(256, DataSize.ofBytes(size * 2 + size / 2));
+
+        store.put("a", snapshot);
+        store.put("b", snapshot(100));
+        store.get("a", "v");
+        store.put("c", snapshot(100));
+
+        assertEquals(2, store.size());
+        assertTrue(store.weight() <= size * 2 + size / 2);
+        assertNotNull(store.get("a", "v"));
+        assertNull(store.get("b", "v"));
+        assertNotNull(store.get("c", "v"));
+
+        // 单个快照超过总预算时不保存，同一 lineage 的旧快照也不再保留
+        store.put("a", snapshot(1000));
+        assertNull(store.get("a", "v"));
+        assertEquals(1, store.size());
+        assertEquals(size, store.weight());
+    }
+
+    private static ParagraphSnapshot snapshot(int paragraphs) {
+        Map<Long, ParagraphSnapshot.Outcome> outcomes = new HashMap<>();
+        for (long i = 0; i < paragraphs; i++) {
+            outcomes.put(i, new ParagraphSnapshot.Outcome(List.of("FontMismatch:Arial:" + i),
+                    List.of(new ValidationMessage("FontMismatch", "Обнаружен неправильный шрифт:Arial",
+                            "Пожалуйста, установите шрифт 'Times New Roman'", "Абзац " + i))));
+        }
+        return new ParagraphSnapshot("v", outcomes);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+// 默认模式：Tomcat 平台线程池，异步任务使用固定大小的线程池
+@TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+class PlatformThreadsLoadTests extends ExecutionModeLoadTests {
+
+    @Test
+    void burstOfSubmissions() throws Exception {
+        assertInstanceOf(ThreadPoolTaskExecutor.class, jobExecutor);
+        burst("platform");
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.service;
+
+import com.example.service.rules.RuleProfile;
+import com.example.service.rules.RuleProfiles;
+import com.example.tools.ValidationResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RuleProfilesTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void profileIsSelectedPerRequestAndReloaded() throws Exception {
+        Path file = dir.resolve("faculty.yaml");
+        write(file, 10);
+        RuleProfiles profiles = TestDocuments.profiles(dir.toString());
+        assertEquals(2, profiles.all().size());
+
+        ValidationResultCache cache = new ValidationResultCache(DataSize.ofMegabytes(1), Duration.ofMinutes(1));
+        TemplateValidatorService service = TestDocuments.service(cache, profiles);
+        MockMultipartFile thesis = TestDocuments.thesis("profile", "Arial", 10, 2);
+
+        ValidationOptions faculty = new ValidationOptions();
+        faculty.setProfile("faculty");
+        TemplateValidatorService.Result byDefault = service.validateWithId(thesis, new ValidationOptions());
+        TemplateValidatorService.Result byFaculty = service.validateWithId(thesis, faculty);
+
+        Map<String, Long> defaultCounts = byDefault.response().getStats().getErrorTypeCount();
+        assertTrue(defaultCounts.containsKey("FontMismatch"));
+        assertTrue(defaultCounts.containsKey("FontSizeMismatch"));
+        assertFalse(defaultCounts.containsKey("ContentMismatch"));
+
+        // 同一文件在不同规则集下的结果分别缓存
+        Map<String, Long> facultyCounts = byFaculty.response().getStats().getErrorTypeCount();
+        assertEquals(Map.of("ContentMismatch", 1L), facultyCounts);
+        assertNotEquals(byDefault.id(), byFaculty.id());
+        assertSame(byFaculty.response(), service.findResult(byFaculty.id()));
+
+        // 修改配置后版本变化，旧结果不再命中
+        RuleProfile before = profiles.get("faculty");
+        write(file, 12);
+        profiles.reload();
+        assertNotEquals(before.getVersion(), profiles.get("faculty").getVersion());
+        assertNull(service.findResult(byFaculty.id()));
+        assertTrue(service.validateTemplate(thesis, faculty).getStats().getErrorTypeCount().containsKey("FontSizeMismatch"));
+        assertSame(byDefault.response(), service.findResult(byDefault.id()));
+
+        // 不合法的配置不生效，原来的规则集保持不变
+        RuleProfile current = profiles.get("faculty");
+        Files.writeString(file, "name: faculty\nfonts: []\n", StandardCharsets.UTF_8);
+        assertThrows(IllegalArgumentException.class, profiles::reload);
+        assertSame(current, profiles.get("faculty"));
+    }
+
+    @Test
+    void unknownProfileIsBadRequest() {
+        ValidationOptions options = new ValidationOptions();
+        options.setProfile("missing");
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> TestDocuments.service()
+                .validateTemplate(TestDocuments.thesis("unknown", "Times New Roman", 14, 1), options));
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+    }
+
+    private static void write(Path file, int minFontSize) throws Exception {
+        Files.writeString(file, """
+                name: faculty
+                description: Курсовая работа
+                fonts: [Arial, Times New Roman]
+                fontSize: {min: %d, max: 14}
+                headings:
+                  - ВВЕДЕНИЕ
+                  - ГЛАВА 1
+                """.formatted(minFontSize), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.service;
+
+import com.example.tools.ValidationResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 同一个服务实例被多个线程同时调用时，每个响应只包含自己文档的结果
+class TemplateValidatorConcurrencyTests {
+
+    private static final String[] FONTS = {"Times New Roman", "Arial", "Calibri", "Courier New"};
+    private static final int[] SIZES = {10, 12, 14, 16};
+
+    private final TemplateValidatorService service = TestDocuments.service();
+
+    @Test
+    void parallelValidationsDoNotInterfere() throws Exception {
+        int documents = 32;
+        int rounds = 4;
+
+        List<MockMultipartFile> files = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < documents; i++) {
+            MockMultipartFile file = TestDocuments.thesis("doc" + i, FONTS[i % FONTS.length], SIZES[(i / FONTS.length) % SIZES.length], 5 + i % 7);
+            files.add(file);
+            expected.add(service.validateTemplate(file, i % 2 == 0).toString());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<String>> results = new ArrayList<>();
+            List<Integer> order = new ArrayList<>();
+            for (int round = 0; round < rounds; round++) {
+                for (int i = 0; i < documents; i++) {
+                    int index = i;
+                    boolean streaming = (i + round) % 2 == 0;
+                    order.add(index);
+                    results.add(pool.submit(() -> {
+                        start.await();
+                        ValidationResponse response = service.validateTemplate(files.get(index), streaming);
+                        return response.toString();
+                    }));
+                }
+            }
+            start.countDown();
+
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(expected.get(order.get(i)), results.get(i).get(60, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+        }
+    }
+}
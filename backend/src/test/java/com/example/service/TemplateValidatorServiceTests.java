@@ -0,0 +1,344 @@
+package com.example.service;
+
+import com.example.service.docx.DocxParagraph;
+import com.example.service.rules.FontRule;
+import com.example.service.rules.FontSizeRule;
+import com.example.service.rules.SectionHeadingRule;
+import com.example.service.rules.ValidationRule;
+import com.example.tools.ValidationMessage;
+import com.example.tools.ValidationResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.poi.util.Units;
+import org.apache.poi.wp.usermodel.HeaderFooterType;
+import org.apache.poi.xwpf.usermodel.Document;
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFFootnote;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFStyle;
+import org.apache.poi.xwpf.usermodel.XWPFStyles;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableCell;
+import org.junit.jupiter.api.Test;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTP;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTStyle;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STJc;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STStyleType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TemplateValidatorServiceTests {
+
+    private final TemplateValidatorService service = TestDocuments.service();
+
+    @Test
+    void streamingMatchesDom() throws Exception {
+        MockMultipartFile file;
+        try (XWPFDocument doc = new XWPFDocument()) {
+            XWPFParagraph heading = doc.createParagraph();
+            heading.setAlignment(ParagraphAlignment.CENTER);
+            heading.createRun().setText("ВВЕДЕНИЕ");
+
+            XWPFParagraph body = doc.createParagraph();
+            XWPFRun run = body.createRun();
+            run.setFontFamily("Arial");
+            run.setFontSize(10);
+            run.setText("Основной текст");
+
+            doc.createTable(1, 1).getRow(0).getCell(0).setText("Ячейка");
+            file = TestDocuments.toFile("parity", doc);
+        }
+
+        String dom = service.validateTemplate(file, false).toString();
+        String streaming = service.validateTemplate(file, true).toString();
+        assertEquals(dom, streaming);
+    }
+
+    @Test
+    void tablesHeadersFootersAndNotesAreChecked() throws Exception {
+        MockMultipartFile file;
+        try (XWPFDocument doc = new XWPFDocument()) {
+            XWPFParagraph body = doc.createParagraph();
+            arial(body, "Текст со сноской");
+
+            // 表格中的标题文本不算作章节标题；嵌套表格中的段落同样检查
+            XWPFTable table = doc.createTable(1, 2);
+            table.getRow(0).getCell(0).setText("ВВЕДЕНИЕ");
+            XWPFTableCell cell = table.getRow(0).getCell(1);
+            arial(cell.getParagraphs().get(0), "Ячейка");
+            CTP nested = cell.getCTTc().addNewTbl().addNewTr().addNewTc().addNewP();
+            arial(new XWPFParagraph(nested, cell), "Вложенная ячейка");
+
+            arial(doc.createHeader(HeaderFooterType.DEFAULT).createParagraph(), "Колонтитул");
+            XWPFRun footer = doc.createFooter(HeaderFooterType.DEFAULT).createParagraph().createRun();
+            footer.setFontSize(9);
+            footer.setText("Нижний колонтитул");
+
+            XWPFFootnote footnote = doc.createFootnote();
+            body.addFootnoteReference(footnote);
+            arial(footnote.createParagraph(), "Сноска");
+            arial(doc.createEndnote().createParagraph(), "Концевая сноска");
+            file = TestDocuments.toFile("containers", doc);
+        }
+
+        ValidationResponse dom = service.validateTemplate(file, false);
+        ValidationResponse streaming = service.validateTemplate(file, true);
+        assertEquals(dom.toString(), streaming.toString());
+
+        Set<String> fontErrors = new HashSet<>();
+        for (ValidationMessage message : dom.getMessages()) {
+            if (message.getCode().equals("FontMismatch")) {
+                fontErrors.add(message.getContent());
+            }
+        }
+        // 正文段落的内容不包含脚注文本
+        assertEquals(Set.of("Текст со сноской", "Ячейка", "Вложенная ячейка", "Колонтитул", "Сноска", "Концевая сноска"), fontErrors);
+        assertEquals(1L, dom.getStats().getErrorTypeCount().get("FontSizeMismatch"));
+        // 表格中的 ВВЕДЕНИЕ 不能代替正文中的标题
+        assertEquals(6L, dom.getStats().getErrorTypeCount().get("ContentMismatch"));
+    }
+
+    private static void arial(XWPFParagraph paragraph, String text) {
+        XWPFRun run = paragraph.createRun();
+        run.setFontFamily("Arial");
+        run.setFontSize(12);
+        run.setText(text);
+    }
+
+    @Test
+    void streamingMatchesDomOnGeneratedThesis() throws Exception {
+        MockMultipartFile file = TestDocuments.thesis("thesis", "Arial", 11, 20);
+
+        ValidationResponse dom = service.validateTemplate(file, false);
+        String expected = dom.toString();
+        ValidationResponse streaming = service.validateTemplate(file, true);
+
+        assertEquals(expected, streaming.toString());
+    }
+
+    @Test
+    void documentWithPicturesValidatesFromDisk() throws Exception {
+        MockMultipartFile file;
+        try (XWPFDocument doc = new XWPFDocument()) {
+            XWPFRun run = doc.createParagraph().createRun();
+            run.setFontFamily("Arial");
+            run.setFontSize(12);
+            run.setText("Рисунок");
+            // 不可压缩的随机内容，模拟图片
+            byte[] picture = new byte[2 * 1024 * 1024];
+            new Random(1).nextBytes(picture);
+            run.addPicture(new ByteArrayInputStream(picture), Document.PICTURE_TYPE_PNG, "figure.png",
+                    Units.toEMU(100), Units.toEMU(100));
+            file = TestDocuments.toFile("pictures", doc);
+        }
+
+        ValidationResponse dom = service.validateTemplate(file, false);
+        ValidationResponse streaming = service.validateTemplate(file, true);
+
+        assertEquals(dom.toString(), streaming.toString());
+        assertEquals(1L, dom.getStats().getErrorTypeCount().get("FontMismatch"));
+    }
+
+    @Test
+    void headingInheritsBoldAndAlignmentFromParentStyle() throws Exception {
+        MockMultipartFile file;
+        try (XWPFDocument doc = new XWPFDocument()) {
+            XWPFStyles styles = doc.createStyles();
+            CTStyle base = CTStyle.Factory.newInstance();
+            base.setStyleId("HeadingBase");
+            base.setType(STStyleType.PARAGRAPH);
+            base.addNewRPr().addNewB();
+            base.addNewPPr().addNewJc().setVal(STJc.CENTER);
+            styles.addStyle(new XWPFStyle(base));
+
+            CTStyle heading = CTStyle.Factory.newInstance();
+            heading.setStyleId("Heading");
+            heading.setType(STStyleType.PARAGRAPH);
+            heading.addNewBasedOn().setVal("HeadingBase");
+            heading.addNewPPr().addNewJc().setVal(STJc.LEFT);
+            styles.addStyle(new XWPFStyle(heading));
+
+            for (String section : TestDocuments.SECTIONS) {
+                XWPFParagraph paragraph = doc.createParagraph();
+                paragraph.setStyle("Heading");
+                paragraph.createRun().setText(section);
+            }
+            file = TestDocuments.toFile("styles", doc);
+        }
+
+        for (boolean streaming : new boolean[]{false, true}) {
+            ValidationResponse response = service.validateTemplate(file, streaming);
+            assertFalse(response.getStats().getErrorTypeCount().containsKey("BoldError"), response.toString());
+            assertFalse(response.getStats().getErrorTypeCount().containsKey("AlignmentError"), response.toString());
+            assertEquals(0, response.getStats().getTotalErrors(), response.toString());
+        }
+    }
+
+    @Test
+    void repeatedUploadIsServedFromCache() throws Exception {
+        ValidationResultCache cache = new ValidationResultCache(DataSize.ofMegabytes(1), Duration.ofMinutes(1));
+        TemplateValidatorService cachingService = TestDocuments.service(cache);
+        MockMultipartFile file = TestDocuments.thesis("cached", "Arial", 11, 3);
+
+        ValidationResponse first = cachingService.validateTemplate(file, false);
+        ValidationResponse second = cachingService.validateTemplate(file, true);
+
+        assertSame(first, second);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        // 内容不同的文件不会命中
+        cachingService.validateTemplate(TestDocuments.thesis("other", "Arial", 11, 3), false);
+        assertEquals(2, cache.getMissCount());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void errorBudgetStopsCollectionAndMarksLowerBound() throws Exception {
+        ValidationResultCache cache = new ValidationResultCache(DataSize.ofMegabytes(1), Duration.ofMinutes(1));
+        TemplateValidatorService cachingService = TestDocuments.service(cache);
+        MockMultipartFile file = TestDocuments.thesis("budget", "Arial", 10, 10);
+
+        ValidationResponse full = cachingService.validateTemplate(file, new ValidationOptions(false, null));
+        assertFalse(full.getStats().isLowerBound());
+        assertTrue(full.getStats().getErrorTypeCount().get("FontMismatch") > 2);
+
+        ValidationOptions perCode = new ValidationOptions(false, null);
+        perCode.setMaxErrorsPerCode(2);
+        ValidationResponse capped = cachingService.validateTemplate(file, perCode);
+        assertTrue(capped.getStats().isLowerBound());
+        assertEquals(2L, capped.getStats().getErrorTypeCount().get("FontMismatch"));
+        assertEquals(2L, capped.getStats().getErrorTypeCount().get("FontSizeMismatch"));
+        // 预算不同，不能命中完整结果的缓存
+        assertEquals(2, cache.getMissCount());
+
+        ValidationOptions failFast = new ValidationOptions(true, null);
+        failFast.setFailFast(true);
+        ValidationResponse first = cachingService.validateTemplate(file, failFast);
+        assertTrue(first.getStats().isLowerBound());
+        assertEquals(1, first.getMessages().size());
+        // 提前结束时不报告缺少章节
+        assertFalse(first.getStats().getErrorTypeCount().containsKey("ContentMismatch"));
+    }
+
+    @Test
+    void parallelMatchesSequential() throws Exception {
+        MockMultipartFile original = TestDocuments.thesis("parallel", "Arial", 11, 20);
+        MockMultipartFile edited;
+        try (XWPFDocument doc = new XWPFDocument(original.getInputStream())) {
+            // 一个标题不加粗，删除最后一个标题：合并后才能得到正确的 BoldError 和 ContentMismatch
+            doc.getParagraphs().get(21).getRuns().get(0).setBold(false);
+            doc.removeBodyElement(doc.getPosOfParagraph(doc.getParagraphs().get(105)));
+            edited = TestDocuments.toFile("parallel", doc);
+        }
+
+        ValidationOptions parallel = new ValidationOptions(false, null);
+        parallel.setParallel(true);
+        ValidationResponse sequential = service.validateTemplate(edited, new ValidationOptions(false, null));
+        ValidationResponse forked = service.validateTemplate(edited, parallel);
+
+        assertEquals(sequential.toString(), forked.toString());
+        assertEquals(1L, forked.getStats().getErrorTypeCount().get("BoldError"));
+        assertEquals(1L, forked.getStats().getErrorTypeCount().get("ContentMismatch"));
+
+        // 增量校验时，未改动的段落在各块中复用上一次的结果
+        service.validateTemplate(original, new ValidationOptions(false, "parallel-1"));
+        ValidationOptions incremental = new ValidationOptions(true, "parallel-1");
+        incremental.setParallel(true);
+        assertEquals(sequential.toString(), service.validateTemplate(edited, incremental).toString());
+    }
+
+    @Test
+    void incrementalRevalidationMatchesFullValidation() throws Exception {
+        MockMultipartFile original = TestDocuments.thesis("draft", "Times New Roman", 14, 10);
+        MockMultipartFile edited;
+        try (XWPFDocument doc = new XWPFDocument(original.getInputStream())) {
+            // 修改一个段落的文本和字体，删除一个标题
+            XWPFRun run = doc.getParagraphs().get(3).getRuns().get(0);
+            run.setFontFamily("Arial");
+            run.setText("Изменённый абзац", 0);
+            doc.removeBodyElement(doc.getPosOfParagraph(doc.getParagraphs().get(0)));
+            edited = TestDocuments.toFile("draft", doc);
+        }
+
+        // 额外的计数规则：记录真正检查的段落和直接复用结果的段落
+        AtomicInteger checked = new AtomicInteger();
+        AtomicInteger replayed = new AtomicInteger();
+        ValidationRule counter = new ValidationRule() {
+            @Override
+            public void onParagraphEnd(DocxParagraph paragraph, String text, ValidationContext context) {
+                checked.incrementAndGet();
+            }
+
+            @Override
+            public void onCachedParagraph(DocxParagraph paragraph, String text, ValidationContext context) {
+                replayed.incrementAndGet();
+            }
+        };
+        TemplateValidatorService counting = TestDocuments.service(
+                List.of(new FontRule(), new FontSizeRule(), new SectionHeadingRule(), counter),
+                TestDocuments.noCache(), new ValidationMetrics(new SimpleMeterRegistry()), TestDocuments.PROFILES);
+
+        counting.validateTemplate(original, new ValidationOptions(false, "thesis-42"));
+        int paragraphs = checked.getAndSet(0);
+        assertEquals(0, replayed.get());
+
+        ValidationResponse incremental = counting.validateTemplate(edited, new ValidationOptions(true, "thesis-42"));
+        // 只有改动的段落重新检查，其余（原有段落减去删除的标题和改动的段落）全部复用
+        assertEquals(1, checked.getAndSet(0));
+        assertEquals(paragraphs - 2, replayed.getAndSet(0));
+
+        ValidationResponse full = counting.validateTemplate(edited, new ValidationOptions(true, null));
+        assertEquals(0, replayed.get());
+
+        assertEquals(full.toString(), incremental.toString());
+        assertEquals(1L, incremental.getStats().getErrorTypeCount().get("FontMismatch"));
+        assertEquals(1L, incremental.getStats().getErrorTypeCount().get("ContentMismatch"));
+        assertEquals(2, incremental.getStats().getTotalErrors());
+    }
+
+    @Test
+    void incrementalRevalidationKeepsErrorsDeduplicatedAcrossLocations() throws Exception {
+        // 表格中的段落与正文段落文本和字体相同：第一次上传时它的错误与正文的重复，被去重
+        MockMultipartFile original = bodyAndTableCell("Arial");
+        // 第二次上传只修正正文段落，表格段落未改动，复用上一次的结果时错误不能丢失
+        MockMultipartFile edited = bodyAndTableCell("Times New Roman");
+
+        service.validateTemplate(original, new ValidationOptions(false, "thesis-table"));
+        ValidationResponse incremental = service.validateTemplate(edited, new ValidationOptions(false, "thesis-table"));
+        ValidationResponse full = service.validateTemplate(edited, new ValidationOptions(false, null));
+
+        assertEquals(1L, full.getStats().getErrorTypeCount().get("FontMismatch"));
+        assertEquals(full.toString(), incremental.toString());
+    }
+
+    private static MockMultipartFile bodyAndTableCell(String bodyFont) throws Exception {
+        try (XWPFDocument doc = new XWPFDocument()) {
+            XWPFRun body = doc.createParagraph().createRun();
+            body.setFontFamily(bodyFont);
+            body.setFontSize(14);
+            body.setText("Повторяющийся текст");
+
+            XWPFTableCell cell = doc.createTable(1, 1).getRow(0).getCell(0);
+            XWPFRun run = cell.getParagraphs().get(0).createRun();
+            run.setFontFamily("Arial");
+            run.setFontSize(14);
+            run.setText("Повторяющийся текст");
+            return TestDocuments.toFile("table-" + bodyFont, doc);
+        }
+    }
+}
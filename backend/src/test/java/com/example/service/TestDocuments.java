@@ -0,0 +1,124 @@
+package com.example.service;
+
+import com.example.service.rules.FontRule;
+import com.example.service.rules.FontSizeRule;
+import com.example.service.rules.RuleDispatcher;
+import com.example.service.rules.RuleProfiles;
+import com.example.service.rules.SectionHeadingRule;
+import com.example.service.rules.ValidationRule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+
+// 测试用 docx 生成工具
+final class TestDocuments {
+
+    static final String[] SECTIONS = {
+            "СПИСОК СОКРАЩЕНИЙ И УСЛОВНЫХ ОБОЗНАЧЕНИЙ",
+            "ТЕРМИНЫ И ОПРЕДЕЛЕНИЯ",
+            "ВВЕДЕНИЕ",
+            "ЗАКЛЮЧЕНИЕ",
+            "СПИСОК ИСПОЛЬЗОВАННЫХ ИСТОЧНИКОВ",
+            "ПРИЛОЖЕНИЕ"
+    };
+
+    // 块很小、线程多于 CPU，测试中也能真正切成多块并发执行
+    static final ParallelValidation PARALLEL = new ParallelValidation(4, 8);
+
+    // 只有 jar 中的内置规则集
+    static final RuleProfiles PROFILES = profiles("");
+
+    private TestDocuments() {
+    }
+
+    // 不启动 Spring 容器，手动组装服务；默认关闭结果缓存，每次都真正校验
+    static TemplateValidatorService service() {
+        return service(noCache());
+    }
+
+    static TemplateValidatorService service(ValidationResultCache cache) {
+        return service(cache, new ValidationMetrics(new SimpleMeterRegistry()));
+    }
+
+    static TemplateValidatorService service(ValidationResultCache cache, RuleProfiles profiles) {
+        return service(cache, new ValidationMetrics(new SimpleMeterRegistry()), profiles);
+    }
+
+    static TemplateValidatorService service(ValidationResultCache cache, ValidationMetrics metrics) {
+        return service(cache, metrics, PROFILES);
+    }
+
+    static TemplateValidatorService service(ValidationResultCache cache, ValidationMetrics metrics, RuleProfiles profiles) {
+        return service(List.of(new FontRule(), new FontSizeRule(), new SectionHeadingRule()), cache, metrics, profiles);
+    }
+
+    static TemplateValidatorService service(List<ValidationRule> rules, ValidationResultCache cache,
+                                            ValidationMetrics metrics, RuleProfiles profiles) {
+        return new TemplateValidatorService(new RuleDispatcher(rules), cache,
+                new IncrementalValidationStore(16, DataSize.ofMegabytes(16)), new ParseLimiter(0), uploadGuard(), metrics, PARALLEL, profiles);
+    }
+
+    // 不自动重新加载，测试中显式调用 reload()
+    static RuleProfiles profiles(String dir) {
+        try {
+            return new RuleProfiles(dir, "default", Duration.ZERO);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static UploadGuard uploadGuard() {
+        return new UploadGuard(10000, 100, DataSize.ofMegabytes(512), DataSize.ofMegabytes(32),
+                DataSize.ofGigabytes(1), Duration.ofSeconds(2));
+    }
+
+    static ValidationResultCache noCache() {
+        return new ValidationResultCache(DataSize.ofBytes(0), Duration.ofMinutes(1));
+    }
+
+    // 生成一份 thesis：标题加粗左对齐，正文使用给定字体和字号
+    static MockMultipartFile thesis(String name, String font, int fontSize, int paragraphs) throws IOException {
+        try (XWPFDocument doc = new XWPFDocument()) {
+            for (int s = 0; s < SECTIONS.length; s++) {
+                String section = SECTIONS[s];
+                XWPFParagraph heading = doc.createParagraph();
+                heading.setAlignment(ParagraphAlignment.LEFT);
+                XWPFRun run = heading.createRun();
+                run.setBold(true);
+                run.setFontFamily("Times New Roman");
+                run.setFontSize(14);
+                run.setText(section);
+
+                for (int i = 0; i < paragraphs; i++) {
+                    XWPFParagraph body = doc.createParagraph();
+                    XWPFRun first = body.createRun();
+                    first.setFontFamily(font);
+                    first.setFontSize(fontSize);
+                    first.setText(name + " раздел " + s + " абзац " + i + ". ");
+                    XWPFRun second = body.createRun();
+                    second.setFontFamily(font);
+                    second.setFontSize(fontSize);
+                    second.addTab();
+                    second.setText("Текст");
+                }
+            }
+            return toFile(name, doc);
+        }
+    }
+
+    static MockMultipartFile toFile(String name, XWPFDocument doc) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        doc.write(out);
+        return new MockMultipartFile("file", name + ".docx", null, out.toByteArray());
+    }
+}
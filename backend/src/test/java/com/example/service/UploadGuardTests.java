@@ -0,0 +1,108 @@
+package com.example.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UploadGuardTests {
+
+    private Path file;
+
+    @AfterEach
+    void cleanup() throws IOException {
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void rejectsHighlyCompressedDocumentXml() throws Exception {
+        // 16MB 空格压缩后只有几 KB
+        file = zip(16 * 1024 * 1024, 1);
+        UploadGuard guard = TestDocuments.uploadGuard();
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> guard.admit(file, false));
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, e.getStatusCode());
+    }
+
+    @Test
+    void rejectsTooManyEntries() throws Exception {
+        file = zip(100, 50);
+        UploadGuard guard = new UploadGuard(20, 100, DataSize.ofMegabytes(512), DataSize.ofMegabytes(32),
+                DataSize.ofGigabytes(1), Duration.ofSeconds(2));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> guard.admit(file, false));
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, e.getStatusCode());
+    }
+
+    @Test
+    void switchesLargeDocumentsToStreaming() throws Exception {
+        MockMultipartFile thesis = TestDocuments.thesis("large", "Times New Roman", 14, 50);
+        file = Files.createTempFile("upload-guard-", ".docx");
+        thesis.transferTo(file);
+        UploadGuard guard = new UploadGuard(10000, 100, DataSize.ofMegabytes(512), DataSize.ofKilobytes(1),
+                DataSize.ofGigabytes(1), Duration.ofSeconds(2));
+
+        try (UploadGuard.Admission admission = guard.admit(file, false)) {
+            assertTrue(admission.isStreaming());
+        }
+    }
+
+    @Test
+    void returns429WhenBudgetIsExhausted() throws Exception {
+        MockMultipartFile thesis = TestDocuments.thesis("budget", "Times New Roman", 14, 50);
+        file = Files.createTempFile("upload-guard-", ".docx");
+        thesis.transferTo(file);
+        UploadGuard guard = new UploadGuard(10000, 100, DataSize.ofMegabytes(512), DataSize.ofMegabytes(32),
+                DataSize.ofKilobytes(1), Duration.ofMillis(50));
+
+        try (UploadGuard.Admission admission = guard.admit(file, false)) {
+            assertFalse(admission.isStreaming());
+            ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> guard.admit(file, false));
+            assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getStatusCode());
+            // 等待不足一秒时按一秒计
+            assertEquals("1", e.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        }
+        // 释放后可以再次进入
+        guard.admit(file, false).close();
+        assertEquals(1, guard.getAvailableKb());
+    }
+
+    // document.xml 为 size 个空格，另加 extra 个小条目
+    private static Path zip(int size, int extra) throws IOException {
+        Path path = Files.createTempFile("upload-guard-", ".docx");
+        try (OutputStream out = Files.newOutputStream(path); ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.putNextEntry(new ZipEntry("word/document.xml"));
+            byte[] chunk = new byte[64 * 1024];
+            Arrays.fill(chunk, (byte) ' ');
+            for (int written = 0; written < size; written += chunk.length) {
+                zip.write(chunk, 0, Math.min(chunk.length, size - written));
+            }
+            zip.closeEntry();
+            for (int i = 0; i < extra; i++) {
+                zip.putNextEntry(new ZipEntry("word/media/image" + i + ".png"));
+                zip.write(i);
+                zip.closeEntry();
+            }
+        }
+        return path;
+    }
+}
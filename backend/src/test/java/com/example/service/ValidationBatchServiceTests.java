@@ -0,0 +1,169 @@
+package com.example.service;
+
+import com.example.tools.ValidationResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ValidationBatchServiceTests {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final TemplateValidatorService validator = TestDocuments.service();
+
+    @Test
+    void streamsOneLinePerDocumentAndAggregatesStats() throws Exception {
+        MockMultipartFile a = TestDocuments.thesis("a", "Arial", 12, 4);
+        MockMultipartFile b = TestDocuments.thesis("b", "Times New Roman", 10, 6);
+        MockMultipartFile c = TestDocuments.thesis("c", "Times New Roman", 14, 3);
+
+        ByteArrayOutputStream zipBytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(zipBytes)) {
+            for (MockMultipartFile file : List.of(b, c)) {
+                zip.putNextEntry(new ZipEntry("cohort/" + file.getOriginalFilename()));
+                zip.write(file.getBytes());
+                zip.closeEntry();
+            }
+            zip.putNextEntry(new ZipEntry("cohort/readme.txt"));
+            zip.write("skip".getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        MockMultipartFile cohort = new MockMultipartFile("files", "cohort.zip", null, zipBytes.toByteArray());
+        MockMultipartFile broken = new MockMultipartFile("files", "broken.docx", null, "not a zip".getBytes(StandardCharsets.UTF_8));
+
+        // 预算只有 1KB：每次只能有一个文档在处理，覆盖等待预算的路径
+        ValidationBatchService batch = new ValidationBatchService(validator, TestDocuments.uploadGuard(), mapper, 4,
+                DataSize.ofKilobytes(1), 1000, DataSize.ofMegabytes(200), DataSize.ofGigabytes(2));
+        List<ValidationBatchService.Upload> uploads = batch.spool(List.of(a, cohort, broken));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            batch.validate(uploads, new ValidationOptions(), out);
+        } finally {
+            batch.delete(uploads);
+            batch.shutdown();
+        }
+        for (ValidationBatchService.Upload upload : uploads) {
+            assertFalse(Files.exists(upload.path()));
+        }
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(mapper.readTree(line));
+        }
+        assertEquals(5, lines.size());
+
+        Set<String> names = new HashSet<>();
+        int failed = 0;
+        for (JsonNode line : lines.subList(0, 4)) {
+            assertEquals("document", line.get("type").asText());
+            names.add(line.get("fileName").asText());
+            if (line.get("response").isNull()) {
+                assertNotNull(line.get("error").asText());
+                failed++;
+            }
+        }
+        assertEquals(Set.of("a.docx", "cohort/b.docx", "cohort/c.docx", "broken.docx"), names);
+        assertEquals(1, failed);
+
+        int paragraphs = 0;
+        int errors = 0;
+        Map<String, Long> counts = new HashMap<>();
+        for (MockMultipartFile file : List.of(a, b, c)) {
+            ValidationResponse response = validator.validateTemplate(file);
+            paragraphs += response.getStats().getTotalParagraphs();
+            errors += response.getStats().getTotalErrors();
+            response.getStats().getErrorTypeCount().forEach((code, n) -> counts.merge(code, n, Long::sum));
+        }
+        JsonNode summary = lines.get(4);
+        assertEquals("summary", summary.get("type").asText());
+        assertEquals(4, summary.get("documents").asInt());
+        assertEquals(1, summary.get("failed").asInt());
+        assertEquals(paragraphs, summary.get("stats").get("totalParagraphs").asInt());
+        assertEquals(errors, summary.get("stats").get("totalErrors").asInt());
+        assertTrue(errors > 0);
+        assertEquals(counts, mapper.convertValue(summary.get("stats").get("errorTypeCount"),
+                mapper.getTypeFactory().constructMapType(HashMap.class, String.class, Long.class)));
+    }
+
+    @Test
+    void rejectsZipBombsBeforeStreaming() throws Exception {
+        // 10MB 的 0 压缩后只有约 10KB，压缩比远超 100:1
+        ByteArrayOutputStream zipBytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(zipBytes)) {
+            zip.putNextEntry(new ZipEntry("big.docx"));
+            byte[] zeros = new byte[1024 * 1024];
+            for (int i = 0; i < 10; i++) {
+                zip.write(zeros);
+            }
+            zip.closeEntry();
+        }
+        MockMultipartFile bomb = new MockMultipartFile("files", "bomb.zip", null, zipBytes.toByteArray());
+
+        ByteArrayOutputStream manyBytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(manyBytes)) {
+            for (int i = 0; i < 5; i++) {
+                zip.putNextEntry(new ZipEntry(i + ".docx"));
+                zip.closeEntry();
+            }
+        }
+        MockMultipartFile many = new MockMultipartFile("files", "many.zip", null, manyBytes.toByteArray());
+
+        ValidationBatchService batch = new ValidationBatchService(validator, TestDocuments.uploadGuard(), mapper, 4,
+                DataSize.ofMegabytes(16), 4, DataSize.ofMegabytes(200), DataSize.ofGigabytes(2));
+        Set<Path> before = spooled();
+        try {
+            for (MockMultipartFile file : List.of(bomb, many)) {
+                ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> batch.spool(List.of(file)));
+                assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, e.getStatusCode());
+            }
+
+            // 跳过中央目录检查，解压时按实际字节数同样拒绝
+            Path raw = Files.createTempFile("bomb-", ".zip");
+            try {
+                Files.write(raw, bomb.getBytes());
+                List<ValidationBatchService.Upload> uploads = List.of(new ValidationBatchService.Upload("bomb.zip", raw));
+                ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                        () -> batch.validate(uploads, new ValidationOptions(), new ByteArrayOutputStream()));
+                assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, e.getStatusCode());
+            } finally {
+                Files.delete(raw);
+            }
+        } finally {
+            batch.shutdown();
+        }
+        // 被拒绝的上传已经删除
+        assertEquals(before, spooled());
+    }
+
+    private static Set<Path> spooled() throws Exception {
+        Set<Path> files = new HashSet<>();
+        Path tmp = Path.of(System.getProperty("java.io.tmpdir"));
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(tmp, "validation-batch-*")) {
+            stream.forEach(files::add);
+        }
+        return files;
+    }
+}
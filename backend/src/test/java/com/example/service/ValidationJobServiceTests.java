@@ -0,0 +1,53 @@
+package com.example.service;
+
+import com.example.tools.ValidationJobStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ValidationJobServiceTests {
+
+    @Test
+    void jobFinishingDuringPurgeIsNotEvicted() throws Exception {
+        // nanoTime 的起点是任意的，这里让时钟远离 0：finishedAt 还没写入时按 0 计算一定会被当作过期
+        long origin = 1L << 60;
+        CountDownLatch finishing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        LongSupplier clock = () -> {
+            if (Thread.currentThread().getName().startsWith("job-")) {
+                // 任务线程正在记录完成时间：停在这里，让另一个请求在这时触发清理
+                finishing.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return origin + System.nanoTime();
+        };
+        ValidationJobService jobs = new ValidationJobService(TestDocuments.service(), new SimpleAsyncTaskExecutor("job-"),
+                1, 10, Duration.ofMinutes(10), Duration.ofMinutes(1), clock);
+
+        ValidationJobStatus first = jobs.submit(TestDocuments.thesis("first", "Times New Roman", 14, 2), new ValidationOptions());
+        assertTrue(finishing.await(10, TimeUnit.SECONDS));
+
+        // submit 会清理过期任务；正在结束的任务不能被清理
+        jobs.submit(TestDocuments.thesis("second", "Times New Roman", 14, 2), new ValidationOptions());
+        assertEquals("RUNNING", jobs.status(first.getJobId()).getStatus());
+
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!jobs.status(first.getJobId()).getStatus().equals("DONE") && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertNotNull(jobs.result(first.getJobId()));
+    }
+}
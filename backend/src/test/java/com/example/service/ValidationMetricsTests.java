@@ -0,0 +1,43 @@
+package com.example.service;
+
+import com.example.tools.ValidationResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ValidationMetricsTests {
+
+    @Test
+    void recordsTimersAndMessageCountersPerDocument() throws Exception {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        TemplateValidatorService service = TestDocuments.service(
+                new ValidationResultCache(DataSize.ofMegabytes(1), Duration.ofMinutes(1)), new ValidationMetrics(registry));
+        MockMultipartFile file = TestDocuments.thesis("metrics", "Arial", 10, 5);
+
+        ValidationResponse response = service.validateTemplate(file, false);
+        service.validateTemplate(file, false);
+
+        assertEquals(1, registry.get("validator.validate").tag("cache", "miss").timer().count());
+        assertEquals(1, registry.get("validator.validate").tag("cache", "hit").timer().count());
+        assertEquals(1, registry.get("validator.document.open").tag("reader", "dom").timer().count());
+        assertEquals(1, registry.get("validator.document.parse").timer().count());
+        for (String rule : new String[]{"FontRule", "FontSizeRule", "SectionHeadingRule"}) {
+            assertEquals(1, registry.get("validator.rule").tag("rule", rule).timer().count());
+        }
+        assertTrue(registry.get("validator.rule").tag("rule", "FontRule").timer().totalTime(TimeUnit.NANOSECONDS) > 0);
+
+        // 缓存命中不重复计数
+        assertEquals(response.getStats().getTotalParagraphs(),
+                registry.get("validator.document.paragraphs").summary().totalAmount());
+        response.getStats().getErrorTypeCount().forEach((code, count) ->
+                assertEquals(count.doubleValue(), registry.get("validator.messages").tag("code", code).counter().count()));
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.service;
+
+import com.example.service.rules.FontRule;
+import com.example.service.rules.FontSizeRule;
+import com.example.service.rules.RuleDispatcher;
+import com.example.service.rules.SectionHeadingRule;
+import com.example.tools.ValidationResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ValidationWarmupTests {
+
+    @Test
+    void validatesBundledSampleInEveryMode() throws Exception {
+        ValidationWarmup warmup = new ValidationWarmup(
+                new RuleDispatcher(List.of(new FontRule(), new FontSizeRule(), new SectionHeadingRule())),
+                new ParseLimiter(0), TestDocuments.uploadGuard(), TestDocuments.PARALLEL, TestDocuments.PROFILES,
+                new ObjectMapper(),
+                null, true, 2, false);
+
+        assertEquals(6, warmup.warmUp());
+
+        // 样例覆盖各类错误，预热时规则的报错路径也会被执行
+        ValidationResponse response = TestDocuments.service()
+                .validateTemplate(new ClassPathResource(ValidationWarmup.SAMPLE), new ValidationOptions());
+        for (String code : List.of("FontMismatch", "FontSizeMismatch", "BoldError", "AlignmentError")) {
+            assertTrue(response.getStats().getErrorTypeCount().containsKey(code), response.getStats().toString());
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.service;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+// spring.threads.virtual.enabled=true：Java 21+ 上 Tomcat 请求线程和异步任务都是虚拟线程
+@TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadsLoadTests extends ExecutionModeLoadTests {
+
+    @Test
+    void burstOfSubmissions() throws Exception {
+        if (Runtime.version().feature() < 21) {
+            // 开关在 Java 21 以下不生效：ValidationExecutorConfig 记录警告并退回平台线程池，没有可对比的结果
+            assertInstanceOf(ThreadPoolTaskExecutor.class, jobExecutor);
+            Assumptions.abort("virtual threads need Java 21+");
+        }
+        assertInstanceOf(SimpleAsyncTaskExecutor.class, jobExecutor);
+        burst("virtual");
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.service.rules;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HeadingMatcherTests {
+
+    @Test
+    void findsAllOverlappingPatternsInOneScan() {
+        HeadingMatcher matcher = HeadingMatcher.of(List.of("he", "she", "his", "hers", "ВВЕДЕНИЕ"));
+
+        BitSet found = new BitSet();
+        matcher.match("ushers", found);
+        assertEquals(BitSet.valueOf(new long[]{0b1011}), found);
+
+        found.clear();
+        matcher.match("1. ВВЕДЕНИЕ", found);
+        assertEquals(BitSet.valueOf(new long[]{0b10000}), found);
+
+        found.clear();
+        matcher.match("Введение", found);
+        assertTrue(found.isEmpty());
+    }
+
+    @Test
+    void matchesSameResultsAsContains() {
+        List<String> patterns = List.of(
+                "СПИСОК СОКРАЩЕНИЙ И УСЛОВНЫХ ОБОЗНАЧЕНИЙ",
+                "ТЕРМИНЫ И ОПРЕДЕЛЕНИЯ",
+                "ВВЕДЕНИЕ",
+                "ЗАКЛЮЧЕНИЕ",
+                "СПИСОК ИСПОЛЬЗОВАННЫХ ИСТОЧНИКОВ",
+                "ПРИЛОЖЕНИЕ",
+                "ПРИЛОЖЕНИЕ А"
+        );
+        HeadingMatcher matcher = HeadingMatcher.of(patterns);
+        List<String> texts = List.of(
+                "ПРИЛОЖЕНИЕ А (обязательное)",
+                "СПИСОК ИСПОЛЬЗОВАННЫХ ИСТОЧНИКОВ И ЛИТЕРАТУРЫ",
+                "СПИСОК СОКРАЩЕНИЙ",
+                "ВВЕДЕНИЕЗАКЛЮЧЕНИЕ",
+                ""
+        );
+        for (String text : texts) {
+            BitSet expected = new BitSet();
+            for (int i = 0; i < patterns.size(); i++) {
+                if (text.contains(patterns.get(i))) expected.set(i);
+            }
+            BitSet found = new BitSet();
+            matcher.match(text, found);
+            assertEquals(expected, found, text);
+        }
+    }
+}
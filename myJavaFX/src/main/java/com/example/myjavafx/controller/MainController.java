@@ -5,13 +5,16 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
 import javafx.scene.layout.StackPane;
 
+import java.util.HashMap;
+import java.util.Map;
+
 
 public class MainController {
     @FXML
     private StackPane contentPane;
 
-    // @FXML private BorderPane rootLayout;
-    private String lastView = "upload";
+    // 每个视图只加载一次，之后切换时直接复用；视图自己监听 DataStore 刷新数据
+    private final Map<String, Node> views = new HashMap<>();
 
 
     @FXML
@@ -24,7 +27,6 @@ public class MainController {
     }
 
     public void showReport() {
-        lastView = "report";
         loadView("ReportView.fxml");
     }
 
@@ -34,24 +36,15 @@ public class MainController {
 
     private void loadView(String fxmlPath) {
         try {
-
-            System.out.println("Resource path: " + getClass().getResource("/com/example/myjavafx/" + fxmlPath));
-
-            // 使用相对路径加载 FXML 文件
-            Node view = FXMLLoader.load(getClass().getResource("/com/example/myjavafx/" + fxmlPath));
+            Node view = views.get(fxmlPath);
+            if (view == null) {
+                // 使用相对路径加载 FXML 文件
+                view = FXMLLoader.load(getClass().getResource("/com/example/myjavafx/" + fxmlPath));
+                views.put(fxmlPath, view);
+            }
             contentPane.getChildren().setAll(view);
-            // rootLayout.setCenter(view);
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
-
-    public void forceReload() {
-        // 重新加载当前模块（用于通知报告和统计视图刷新）
-        if (lastView.equals("report")) {
-            showReport();
-        } else if (lastView.equals("stats")) {
-            showStats();
-        }
-    }
 }
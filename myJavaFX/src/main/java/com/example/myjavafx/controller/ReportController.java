@@ -1,17 +1,27 @@
 package com.example.myjavafx.controller;
 
 import com.example.myjavafx.model.DataStore;
-import com.example.myjavafx.model.PDFExporter;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.example.myjavafx.model.ErrorIndex;
+import com.example.myjavafx.model.ExportFormat;
+import com.example.myjavafx.model.ValidationReport;
+import com.example.myjavafx.service.ReportExportTask;
+import javafx.animation.AnimationTimer;
+import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.SortedList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.stage.FileChooser;
 import com.example.myjavafx.model.ErrorEntry;
 
+import java.io.File;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class ReportController {
     @FXML private TableView<ErrorEntry> tableView;
@@ -19,52 +29,218 @@ public class ReportController {
     @FXML private TableColumn<ErrorEntry, String> messageColumn;
     @FXML private TableColumn<ErrorEntry, String> suggestionColumn;
     @FXML private TableColumn<ErrorEntry, String> contentColumn;
+    @FXML private ComboBox<String> codeFilter;
+    @FXML private TextField searchField;
+    @FXML private Label countLabel;
     @FXML private Label exportStatusLabel;
+    @FXML private Button exportButton;
+    @FXML private Button cancelExportButton;
+    @FXML private ProgressBar exportProgress;
+
+    private static final String ALL_CODES = "Все коды";
+    // 每帧最多向表格追加的行数
+    private static final int PAGE_SIZE = 500;
+
+    // 建索引和查询都在这个后台线程上按提交顺序执行，不占用 FX 线程
+    private static final ExecutorService INDEX_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "report-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // 表格中已经显示的行；currentRows 是当前过滤结果，分页追加到 rows 中
+    private final ObservableList<ErrorEntry> rows = FXCollections.observableArrayList();
+    private List<ErrorEntry> currentRows = List.of();
+    private int loaded;
+    private int totalRows;
+    private ErrorIndex index;
+    // 只应用最后一次提交的查询结果
+    private int queryGeneration;
+    private ReportExportTask exportTask;
+
+    private final AnimationTimer pager = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            appendPage();
+        }
+    };
 
     @FXML
     public void initialize() {
-        codeColumn.setCellValueFactory(new PropertyValueFactory<>("code"));
-        messageColumn.setCellValueFactory(new PropertyValueFactory<>("message"));
-        suggestionColumn.setCellValueFactory(new PropertyValueFactory<>("suggestion"));
-        contentColumn.setCellValueFactory(new PropertyValueFactory<>("content"));
+        // 直接调用 getter，不通过反射
+        codeColumn.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue().getCode()));
+        messageColumn.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue().getMessage()));
+        suggestionColumn.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue().getSuggestion()));
+        contentColumn.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue().getContent()));
+
+        // 排序由 SortedList 完成，分页追加的行也会插入到正确的位置
+        SortedList<ErrorEntry> sorted = new SortedList<>(rows);
+        sorted.comparatorProperty().bind(tableView.comparatorProperty());
+        tableView.setItems(sorted);
+
+        codeFilter.valueProperty().addListener((obs, oldValue, newValue) -> applyFilter());
+        searchField.textProperty().addListener((obs, oldValue, newValue) -> applyFilter());
+        // 视图被缓存复用，有新的校验结果时重新加载数据
+        DataStore.getInstance().reportProperty().addListener((obs, oldValue, newValue) -> loadErrors());
 
         loadErrors();
     }
 
     private void loadErrors() {
-        JsonNode root = DataStore.getInstance().getJsonData();
-        if (root == null || !root.has("messages")) return;
-
-        List<ErrorEntry> errors = new ArrayList<>();
-        for (JsonNode msg : root.get("messages")) {
-            errors.add(new ErrorEntry(
-                    msg.get("code").asText(),
-                    msg.get("message").asText(),
-                    msg.get("suggestion").asText(),
-                    msg.get("content").asText()
-            ));
+        ValidationReport report = DataStore.getInstance().getReport();
+        index = null;
+        codeFilter.getItems().setAll(ALL_CODES);
+        codeFilter.setValue(ALL_CODES);
+        searchField.clear();
+        setFilterDisabled(true);
+
+        List<ErrorEntry> errors = report == null ? List.of() : report.getErrors();
+        totalRows = errors.size();
+        show(errors);
+        if (errors.isEmpty()) return;
+
+        // 索引在后台构建，期间表格已经可以浏览，只是过滤和搜索暂不可用
+        Task<ErrorIndex> indexTask = new Task<>() {
+            @Override
+            protected ErrorIndex call() {
+                return ErrorIndex.build(errors);
+            }
+        };
+        indexTask.setOnSucceeded(event -> {
+            if (DataStore.getInstance().getReport() != report) return;
+            index = indexTask.getValue();
+            codeFilter.getItems().addAll(index.codes());
+            setFilterDisabled(false);
+        });
+        INDEX_EXECUTOR.execute(indexTask);
+    }
+
+    private void applyFilter() {
+        ErrorIndex current = index;
+        if (current == null) return;
+        String code = ALL_CODES.equals(codeFilter.getValue()) ? null : codeFilter.getValue();
+        String text = searchField.getText();
+        int generation = ++queryGeneration;
+
+        Task<List<ErrorEntry>> queryTask = new Task<>() {
+            @Override
+            protected List<ErrorEntry> call() {
+                return current.query(code, text);
+            }
+        };
+        queryTask.setOnSucceeded(event -> {
+            if (generation == queryGeneration && current == index) {
+                show(queryTask.getValue());
+            }
+        });
+        INDEX_EXECUTOR.execute(queryTask);
+    }
+
+    // 第一页立即显示，其余每帧追加一页，几万行的报告也不会一次卡住界面
+    private void show(List<ErrorEntry> result) {
+        currentRows = result;
+        loaded = Math.min(PAGE_SIZE, result.size());
+        rows.setAll(result.subList(0, loaded));
+        updateCount();
+        if (loaded < result.size()) {
+            pager.start();
+        } else {
+            pager.stop();
+        }
+    }
+
+    private void appendPage() {
+        int end = Math.min(loaded + PAGE_SIZE, currentRows.size());
+        rows.addAll(currentRows.subList(loaded, end));
+        loaded = end;
+        updateCount();
+        if (loaded == currentRows.size()) {
+            pager.stop();
         }
+    }
+
+    private void updateCount() {
+        countLabel.setText(loaded < currentRows.size()
+                ? "Загрузка: " + loaded + " из " + currentRows.size()
+                : "Показано: " + currentRows.size() + " из " + totalRows);
+    }
 
-        ObservableList<ErrorEntry> data = FXCollections.observableArrayList(errors);
-        tableView.setItems(data);
+    private void setFilterDisabled(boolean disabled) {
+        codeFilter.setDisable(disabled);
+        searchField.setDisable(disabled);
     }
 
+    // 选择格式和保存位置后在后台导出，期间可以继续浏览和过滤报告
     @FXML
-    public void exportPdf() {
-        try {
-            // 执行 PDF 导出操作
-            PDFExporter.exportErrorsToPDF(tableView.getItems());
-
-            // 更新导出状态信息
-            exportStatusLabel.setText("Отчет успешно экспортирован в PDF-файл!");
-            exportStatusLabel.setStyle("-fx-text-fill: #4A4A4A;");
-        } catch (Exception e) {
-            // 更新导出状态信息
-            exportStatusLabel.setText("Ошибка при экспорте PDF: " + e.getMessage());
+    public void export() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Сохранить отчет");
+        for (ExportFormat format : ExportFormat.values()) {
+            fileChooser.getExtensionFilters().add(
+                    new FileChooser.ExtensionFilter(format.getDescription(), "*" + format.getExtension()));
+        }
+        fileChooser.setInitialFileName("report.pdf");
+        File file = fileChooser.showSaveDialog(tableView.getScene().getWindow());
+        if (file == null) return;
+
+        // 文件名没有可识别的扩展名时按选中的过滤器补上
+        ExportFormat format = ExportFormat.forFileName(file.getName());
+        if (format == null) {
+            int selected = fileChooser.getExtensionFilters().indexOf(fileChooser.getSelectedExtensionFilter());
+            format = ExportFormat.values()[Math.max(selected, 0)];
+            file = new File(file.getPath() + format.getExtension());
+        }
+
+        // 导出当前过滤结果的全部行（包括还没追加到表格的），顺序与表格排序一致
+        List<ErrorEntry> errors = new ArrayList<>(currentRows);
+        Comparator<ErrorEntry> comparator = tableView.getComparator();
+        if (comparator != null) {
+            errors.sort(comparator);
+        }
+
+        ReportExportTask task = new ReportExportTask(errors, format, file.toPath());
+        exportTask = task;
+        exportProgress.progressProperty().bind(task.progressProperty());
+        exportStatusLabel.textProperty().bind(task.messageProperty());
+        exportStatusLabel.setStyle("-fx-text-fill: #4A4A4A;");
+        setExporting(true);
+
+        task.setOnSucceeded(event -> {
+            finishExport();
+            exportStatusLabel.setText("Отчет успешно экспортирован: " + task.getValue());
+        });
+        task.setOnCancelled(event -> {
+            finishExport();
+            exportStatusLabel.setText("Экспорт отменен");
+        });
+        task.setOnFailed(event -> {
+            finishExport();
+            exportStatusLabel.setText("Ошибка при экспорте: " + task.getException().getMessage());
             exportStatusLabel.setStyle("-fx-text-fill: red;");
+        });
+
+        Thread thread = new Thread(task, "report-export");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @FXML
+    public void cancelExport() {
+        if (exportTask != null) {
+            exportTask.cancel();
         }
     }
 
+    private void finishExport() {
+        exportTask = null;
+        exportProgress.progressProperty().unbind();
+        exportStatusLabel.textProperty().unbind();
+        setExporting(false);
+    }
 
+    private void setExporting(boolean exporting) {
+        exportButton.setDisable(exporting);
+        exportProgress.setVisible(exporting);
+        cancelExportButton.setVisible(exporting);
+    }
 }
-
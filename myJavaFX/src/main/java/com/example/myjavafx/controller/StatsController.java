@@ -1,11 +1,10 @@
 package com.example.myjavafx.controller;
 
 import com.example.myjavafx.model.DataStore;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.example.myjavafx.model.ValidationReport;
 import javafx.fxml.FXML;
 import javafx.scene.chart.PieChart;
 
-import java.util.Iterator;
 import java.util.Map;
 
 public class StatsController {
@@ -14,26 +13,28 @@ public class StatsController {
 
     @FXML
     public void initialize() {
-        JsonNode root = DataStore.getInstance().getJsonData();
-        if (root == null || !root.has("stats") || !root.get("stats").has("errorTypeCount")) return;
-
-        JsonNode errorTypeCount = root.get("stats").get("errorTypeCount");
+        // 视图被缓存复用，有新的校验结果时只重建图表数据
+        DataStore.getInstance().reportProperty().addListener((obs, oldValue, newValue) -> showStats(newValue));
+        showStats(DataStore.getInstance().getReport());
+    }
 
-        // 转换 fields 为 List，方便使用 stream 操作
-        Iterator<Map.Entry<String, JsonNode>> fields = errorTypeCount.fields();
+    private void showStats(ValidationReport report) {
+        if (report == null) {
+            pieChart.getData().clear();
+            return;
+        }
 
         // 处理 PieChart
-        PieChart.Data[] pieData = new PieChart.Data[(int) errorTypeCount.size()];
+        PieChart.Data[] pieData = new PieChart.Data[report.getErrorTypeCount().size()];
         int index = 0;
-        while (fields.hasNext()) {
-            Map.Entry<String, JsonNode> entry = fields.next();
-            PieChart.Data data = new PieChart.Data(entry.getKey(), entry.getValue().asInt());
+        for (Map.Entry<String, Long> entry : report.getErrorTypeCount().entrySet()) {
+            PieChart.Data data = new PieChart.Data(entry.getKey(), entry.getValue());
 
             // 在饼图的每个部分添加数量标签
-            data.setName(entry.getKey() + " (" + entry.getValue().asInt() + ")");
+            data.setName(entry.getKey() + " (" + entry.getValue() + ")");
             pieData[index++] = data;
         }
 
-        pieChart.getData().addAll(pieData);
+        pieChart.getData().setAll(pieData);
     }
 }
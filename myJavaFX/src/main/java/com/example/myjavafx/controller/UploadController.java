@@ -1,15 +1,13 @@
 package com.example.myjavafx.controller;
 
 import com.example.myjavafx.model.DataStore;
+import com.example.myjavafx.model.ValidationReport;
 import com.example.myjavafx.service.FileUploadService;
 import javafx.concurrent.Task;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.control.ProgressBar;
 import javafx.stage.FileChooser;
-import com.fasterxml.jackson.databind.JsonNode;
 
 import java.io.File;
 import java.util.List;
@@ -20,7 +18,8 @@ public class UploadController {
     @FXML private Label statusLabel;
     @FXML private ProgressBar progressBar;
 
-    private static final long MAX_FILE_SIZE = 10 * 1024 * 1024;
+    // 与后端 spring.servlet.multipart.max-file-size 保持一致
+    private static final long MAX_FILE_SIZE = 200L * 1024 * 1024;
     private static final List<String> ALLOWED_EXT = List.of(".docx", ".tex");
 
     private File currentFile;
@@ -70,7 +69,7 @@ public class UploadController {
         statusLabel.setText("✅ Текущее состояние очищено");
 
         // 清除 DataStore 中的数据
-        DataStore.getInstance().setJsonData(null);
+        DataStore.getInstance().setReport(null);
         DataStore.getInstance().setUploadedFileName(null);  // 清除保存的文件名
     }
 
@@ -83,7 +82,7 @@ public class UploadController {
             return;
         }
         if (file.length() > MAX_FILE_SIZE) {
-            statusLabel.setText("❌ Файл превышает максимальный размер (10MB)");
+            statusLabel.setText("❌ Файл превышает максимальный размер (" + MAX_FILE_SIZE / (1024 * 1024) + "MB)");
             return;
         }
 
@@ -91,12 +90,11 @@ public class UploadController {
         statusLabel.setText("⌛ Загрузка...");
         disableButtons(true);
 
-        Task<Void> uploadTask = new Task<>() {
+        Task<ValidationReport> uploadTask = new Task<>() {
             @Override
-            protected Void call() throws Exception {
-                JsonNode response = FileUploadService.uploadAndParse(file);
-                DataStore.getInstance().setJsonData(response);  // 假设 DataStore 用于存储上传后的数据
-                return null;
+            protected ValidationReport call() throws Exception {
+                // 上传和解析都在后台线程完成，FX 线程只拿到解析好的结果
+                return FileUploadService.uploadAndParse(file);
             }
 
             @Override
@@ -104,7 +102,8 @@ public class UploadController {
                 progressBar.setVisible(false);
                 disableButtons(false);
                 statusLabel.setText("✅ Загрузка прошла успешно！");
-                notifyOtherModules();
+                // 在 FX 线程上更新，报告和统计视图通过监听自动刷新
+                DataStore.getInstance().setReport(getValue());
             }
 
             @Override
@@ -121,17 +120,4 @@ public class UploadController {
     private void disableButtons(boolean disable) {
         // 可选：禁用所有按钮（需要 @FXML 引用按钮）
     }
-
-    private void notifyOtherModules() {
-        // 重新加载当前页面，以触发报告/图表模块的初始化
-        // 通知主控制器重新载入
-        try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/example/myjavafx/MainView.fxml"));
-            Node root = loader.load();
-            MainController mainController = loader.getController();
-            mainController.forceReload(); // 你需要加这个方法
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-    }
 }
@@ -1,19 +1,32 @@
 package com.example.myjavafx.model;
 
 
-import com.fasterxml.jackson.databind.JsonNode;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import lombok.Getter;
+import lombok.Setter;
 
-@Data
-@NoArgsConstructor
+// 各视图共享的数据。视图监听 reportProperty()，有新的校验结果时只刷新自己的数据，不需要重新加载 FXML；
+// report 只能在 FX 线程上修改
 public class DataStore {
     private static final DataStore instance = new DataStore();
-    private JsonNode jsonData;
+    private final ObjectProperty<ValidationReport> report = new SimpleObjectProperty<>(); // 最近一次上传的校验结果
+    @Getter @Setter
     private String uploadedFileName;
 
     public static DataStore getInstance() {
         return instance;
     }
-}
 
+    public ObjectProperty<ValidationReport> reportProperty() {
+        return report;
+    }
+
+    public ValidationReport getReport() {
+        return report.get();
+    }
+
+    public void setReport(ValidationReport report) {
+        this.report.set(report);
+    }
+}
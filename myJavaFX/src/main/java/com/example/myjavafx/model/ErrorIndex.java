@@ -0,0 +1,123 @@
+package com.example.myjavafx.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+// 报告的倒排索引：code -> 行号，以及 code、message、content 中每个词 -> 行号。
+// 在后台线程构建一次，之后只读，可在任意线程查询。
+// 查询时每个词按前缀匹配，多个词之间是“与”的关系，结果保持原来的行顺序
+public class ErrorIndex {
+
+    private final List<ErrorEntry> errors;
+    private final Map<String, BitSet> byCode;
+    private final NavigableMap<String, int[]> byToken;
+
+    private ErrorIndex(List<ErrorEntry> errors, Map<String, BitSet> byCode, NavigableMap<String, int[]> byToken) {
+        this.errors = errors;
+        this.byCode = byCode;
+        this.byToken = byToken;
+    }
+
+    public static ErrorIndex build(List<ErrorEntry> errors) {
+        Map<String, BitSet> byCode = new HashMap<>();
+        Map<String, Postings> postings = new HashMap<>();
+        // message 在解析时已去重，同一个字符串只分词一次
+        Map<String, String[]> tokenCache = new IdentityHashMap<>();
+        for (int row = 0; row < errors.size(); row++) {
+            ErrorEntry entry = errors.get(row);
+            if (entry.getCode() != null) {
+                byCode.computeIfAbsent(entry.getCode(), code -> new BitSet()).set(row);
+            }
+            for (String field : new String[]{entry.getCode(), entry.getMessage(), entry.getContent()}) {
+                if (field == null) continue;
+                for (String token : tokenCache.computeIfAbsent(field, ErrorIndex::tokenize)) {
+                    postings.computeIfAbsent(token, t -> new Postings()).add(row);
+                }
+            }
+        }
+
+        NavigableMap<String, int[]> byToken = new TreeMap<>();
+        postings.forEach((token, rows) -> byToken.put(token, rows.toArray()));
+        return new ErrorIndex(errors, byCode, byToken);
+    }
+
+    // 报告中出现的错误代码，按字母排序
+    public List<String> codes() {
+        List<String> codes = new ArrayList<>(byCode.keySet());
+        codes.sort(null);
+        return codes;
+    }
+
+    // code 为 null 时不按代码过滤，text 为空时不做全文搜索
+    public List<ErrorEntry> query(String code, String text) {
+        BitSet rows = null;
+        if (code != null) {
+            BitSet codeRows = byCode.get(code);
+            if (codeRows == null) return List.of();
+            rows = (BitSet) codeRows.clone();
+        }
+        for (String prefix : tokenize(text == null ? "" : text)) {
+            BitSet matches = new BitSet(errors.size());
+            for (int[] postings : byToken.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+                for (int row : postings) {
+                    matches.set(row);
+                }
+            }
+            if (rows == null) {
+                rows = matches;
+            } else {
+                rows.and(matches);
+            }
+            if (rows.isEmpty()) return List.of();
+        }
+        if (rows == null) return errors;
+
+        List<ErrorEntry> result = new ArrayList<>(rows.cardinality());
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+            result.add(errors.get(row));
+        }
+        return result;
+    }
+
+    // 按字母和数字以外的字符切分，统一小写
+    private static String[] tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean word = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens.toArray(new String[0]);
+    }
+
+    // 一个词出现的行号，按行号递增追加，同一行只记一次
+    private static final class Postings {
+        private int[] rows = new int[4];
+        private int size;
+
+        void add(int row) {
+            if (size > 0 && rows[size - 1] == row) return;
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size++] = row;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(rows, size);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.myjavafx.model;
+
+// 报告导出格式；CSV 和 NDJSON 用于太大、不方便以 PDF 阅读的报告
+public enum ExportFormat {
+    PDF("PDF", ".pdf"),
+    CSV("CSV", ".csv"),
+    NDJSON("NDJSON", ".ndjson");
+
+    private final String description;
+    private final String extension;
+
+    ExportFormat(String description, String extension) {
+        this.description = description;
+        this.extension = extension;
+    }
+
+    public String getDescription() { return description; }
+    public String getExtension() { return extension; }
+
+    // 按文件扩展名选择格式，无法识别时返回 null
+    public static ExportFormat forFileName(String fileName) {
+        String name = fileName.toLowerCase();
+        for (ExportFormat format : values()) {
+            if (name.endsWith(format.extension)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.myjavafx.model;
+
+// 导出进度回调：每写完一批行调用一次；抛出异常（例如任务取消时）会中止导出
+@FunctionalInterface
+public interface ExportProgress {
+    void rowsWritten(int rows);
+}
@@ -5,36 +5,49 @@ import com.lowagie.text.pdf.PdfPTable;
 import com.lowagie.text.pdf.PdfWriter;
 import com.example.myjavafx.model.ErrorEntry;
 
-import java.io.FileOutputStream;
+import java.io.OutputStream;
 import java.util.List;
 
 public class PDFExporter {
-    public static void exportErrorsToPDF(List<ErrorEntry> errors) {
-        try {
-            Document document = new Document();
-            PdfWriter.getInstance(document, new FileOutputStream("./report.pdf"));
-            document.open();
-            document.add(new Paragraph("Отчет об ошибках ВКР шаблона"));
-            document.add(new Paragraph(" ")); // 空行
-
-            PdfPTable table = new PdfPTable(4);
-            table.setWidths(new int[]{2, 5, 5, 5});
-            table.addCell("Код");
-            table.addCell("Сообщение");
-            table.addCell("Предложение");
-            table.addCell("Фрагмент");
-
-            for (ErrorEntry e : errors) {
-                table.addCell(e.getCode());
-                table.addCell(e.getMessage());
-                table.addCell(e.getSuggestion());
-                table.addCell(e.getContent());
-            }
 
-            document.add(table);
-            document.close();
-        } catch (Exception e) {
-            e.printStackTrace();
+    // 每写够这么多行就把表格已完成的部分输出到文档并刷新，内存中只保留一块
+    private static final int CHUNK_ROWS = 500;
+
+    public static void exportErrorsToPDF(List<ErrorEntry> errors, OutputStream out, ExportProgress progress)
+            throws DocumentException {
+        Document document = new Document();
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        document.open();
+        document.add(new Paragraph("Отчет об ошибках ВКР шаблона"));
+        document.add(new Paragraph(" ")); // 空行
+
+        PdfPTable table = new PdfPTable(4);
+        table.setWidths(new int[]{2, 5, 5, 5});
+        // 大表格模式：表头在每页重复，已添加到文档的行从表格中移除
+        table.setHeaderRows(1);
+        table.setComplete(false);
+        table.addCell("Код");
+        table.addCell("Сообщение");
+        table.addCell("Предложение");
+        table.addCell("Фрагмент");
+
+        for (int i = 0; i < errors.size(); i++) {
+            ErrorEntry e = errors.get(i);
+            table.addCell(e.getCode());
+            table.addCell(e.getMessage());
+            table.addCell(e.getSuggestion());
+            table.addCell(e.getContent());
+
+            if ((i + 1) % CHUNK_ROWS == 0) {
+                document.add(table);
+                writer.flush();
+                progress.rowsWritten(i + 1);
+            }
         }
+
+        table.setComplete(true);
+        document.add(table);
+        progress.rowsWritten(errors.size());
+        document.close();
     }
 }
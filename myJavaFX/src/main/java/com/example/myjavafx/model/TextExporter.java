@@ -0,0 +1,82 @@
+package com.example.myjavafx.model;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// CSV 和 NDJSON 导出：逐行写出，不在内存中拼接整个文件
+public class TextExporter {
+
+    private static final int CHUNK_ROWS = 1000;
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    // UTF-8 带 BOM，Excel 打开时能正确识别西里尔字母
+    public static void exportErrorsToCSV(List<ErrorEntry> errors, OutputStream out, ExportProgress progress)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write('\uFEFF');
+        writer.write("Код,Сообщение,Предложение,Фрагмент\r\n");
+        for (int i = 0; i < errors.size(); i++) {
+            ErrorEntry e = errors.get(i);
+            writeCsvField(writer, e.getCode());
+            writer.write(',');
+            writeCsvField(writer, e.getMessage());
+            writer.write(',');
+            writeCsvField(writer, e.getSuggestion());
+            writer.write(',');
+            writeCsvField(writer, e.getContent());
+            writer.write("\r\n");
+            if ((i + 1) % CHUNK_ROWS == 0) {
+                progress.rowsWritten(i + 1);
+            }
+        }
+        writer.flush();
+        progress.rowsWritten(errors.size());
+    }
+
+    // 每行一个 JSON 对象，字段与服务端的 messages 相同
+    public static void exportErrorsToNDJSON(List<ErrorEntry> errors, OutputStream out, ExportProgress progress)
+            throws IOException {
+        JsonGenerator generator = FACTORY.createGenerator(out);
+        generator.setRootValueSeparator(null);
+        for (int i = 0; i < errors.size(); i++) {
+            ErrorEntry e = errors.get(i);
+            generator.writeStartObject();
+            generator.writeStringField("code", e.getCode());
+            generator.writeStringField("message", e.getMessage());
+            generator.writeStringField("suggestion", e.getSuggestion());
+            generator.writeStringField("content", e.getContent());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            if ((i + 1) % CHUNK_ROWS == 0) {
+                progress.rowsWritten(i + 1);
+            }
+        }
+        generator.flush();
+        progress.rowsWritten(errors.size());
+    }
+
+    // 含逗号、引号或换行时加引号，内部引号写两次
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) return;
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.myjavafx.model;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// 一次校验的结果：错误列表和统计，解析后不再修改，可以在后台线程和 FX 线程之间共享
+public class ValidationReport {
+    private final List<ErrorEntry> errors;
+    private final Map<String, Long> errorTypeCount; // 错误类型 -> 出现次数，保持服务端返回的顺序
+    private final int totalParagraphs;
+    private final int totalErrors;
+    private final boolean lowerBound; // 服务端触发错误预算提前结束，计数只是下限
+
+    public ValidationReport(List<ErrorEntry> errors, Map<String, Long> errorTypeCount,
+                            int totalParagraphs, int totalErrors, boolean lowerBound) {
+        this.errors = Collections.unmodifiableList(errors);
+        this.errorTypeCount = Collections.unmodifiableMap(errorTypeCount);
+        this.totalParagraphs = totalParagraphs;
+        this.totalErrors = totalErrors;
+        this.lowerBound = lowerBound;
+    }
+
+    public List<ErrorEntry> getErrors() { return errors; }
+    public Map<String, Long> getErrorTypeCount() { return errorTypeCount; }
+    public int getTotalParagraphs() { return totalParagraphs; }
+    public int getTotalErrors() { return totalErrors; }
+    public boolean isLowerBound() { return lowerBound; }
+}
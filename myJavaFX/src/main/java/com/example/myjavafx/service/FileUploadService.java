@@ -1,6 +1,9 @@
 package com.example.myjavafx.service;
 
+import com.example.myjavafx.model.ValidationReport;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
 
 import java.io.*;
 import java.net.URI;
@@ -8,7 +11,10 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.net.http.HttpRequest.BodyPublishers;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.UUID;
 
 public class FileUploadService {
@@ -16,30 +22,51 @@ public class FileUploadService {
     private static final String DOCX_UPLOAD_URL = "http://localhost:8080/api/validate/docx";
     private static final String LATEX_UPLOAD_URL = "http://localhost:5000/api/validate/latex";
 
-    public static JsonNode uploadAndParse(File file) throws IOException, InterruptedException {
+    // 服务端内存预算不足时返回 429 和 Retry-After，最多重试的次数
+    private static final int MAX_ATTEMPTS = 3;
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(2);
+
+    // 整个应用共用一个客户端：keep-alive 连接在多次上传之间复用。
+    // 后端是未开启 HTTP/2 的 Tomcat，直接使用 HTTP/1.1，不必每次尝试 h2c 升级
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    // 只用于读取错误响应，不扫描 classpath 上的模块
+    private static final ObjectMapper MAPPER = JsonMapper.builder().build();
+
+    // 在后台线程调用：响应直接流式解析为 ValidationReport
+    public static ValidationReport uploadAndParse(File file) throws IOException, InterruptedException {
         System.out.println("Загрузить файлы: " + file.getAbsolutePath());
 
         // 根据文件类型选择合适的 URL
         String uploadUrl = getUploadUrl(file);
 
         String boundary = UUID.randomUUID().toString(); // 生成随机边界
-        HttpClient client = HttpClient.newHttpClient();
 
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(uploadUrl))
                 .header("Content-Type", "multipart/form-data; boundary=" + boundary)
-                .POST(buildMultipartFormData(file, boundary))
+                .POST(buildMultipartFormData(file.toPath(), boundary))
                 .build();
 
-        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-
-        System.out.println("Код статуса ответа: " + response.statusCode());
-        System.out.println("Содержание ответа: " + response.body());
-
-        return com.fasterxml.jackson.databind.json.JsonMapper.builder()
-                .findAndAddModules()
-                .build()
-                .readTree(response.body());
+        for (int attempt = 1; ; attempt++) {
+            HttpResponse<InputStream> response = CLIENT.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            System.out.println("Код статуса ответа: " + response.statusCode());
+
+            try (InputStream body = response.body()) {
+                if (response.statusCode() == 429 && attempt < MAX_ATTEMPTS) {
+                    Thread.sleep(retryDelay(response).toMillis());
+                    continue;
+                }
+                if (response.statusCode() / 100 != 2) {
+                    throw new IOException(errorMessage(response.statusCode(), body));
+                }
+                // 直接从响应流解析，不先把整个响应读成字符串或 JsonNode
+                return ValidationReportReader.read(body);
+            }
+        }
     }
 
     private static String getUploadUrl(File file) {
@@ -51,25 +78,49 @@ public class FileUploadService {
         return DOCX_UPLOAD_URL;
     }
 
-    private static HttpRequest.BodyPublisher buildMultipartFormData(File file, String boundary) throws IOException {
-        var byteStream = new ByteArrayOutputStream();
-        var writer = new PrintWriter(new OutputStreamWriter(byteStream, "UTF-8"), true);
-
-        // 写入 multipart headers
-        writer.append("--").append(boundary).append("\r\n");
-        writer.append("Content-Disposition: form-data; name=\"file\"; filename=\"").append(file.getName()).append("\"\r\n");
-        writer.append("Content-Type: ").append(Files.probeContentType(file.toPath())).append("\r\n");
-        writer.append("\r\n").flush();
-
-        // 写入文件内容
-        Files.copy(file.toPath(), byteStream);
-        byteStream.flush();
-
-        writer.append("\r\n").flush();
+    // multipart 头、文件内容和结束 boundary 依次发送，文件按块从磁盘读取，不整体读入内存；
+    // 每个部分长度已知，请求带 Content-Length，重试时会重新读取文件
+    private static HttpRequest.BodyPublisher buildMultipartFormData(Path file, String boundary) throws IOException {
+        String contentType = Files.probeContentType(file);
+        String head = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\""
+                + file.getFileName().toString().replace("\"", "%22") + "\"\r\n"
+                + "Content-Type: " + (contentType != null ? contentType : "application/octet-stream") + "\r\n"
+                + "\r\n";
+        String tail = "\r\n--" + boundary + "--\r\n";
+
+        return BodyPublishers.concat(
+                BodyPublishers.ofString(head, StandardCharsets.UTF_8),
+                BodyPublishers.ofFile(file),
+                BodyPublishers.ofString(tail, StandardCharsets.UTF_8));
+    }
 
-        // 结束 boundary
-        writer.append("--").append(boundary).append("--").append("\r\n").flush();
+    // 有 Retry-After（秒）时按它等待，否则使用默认间隔
+    private static Duration retryDelay(HttpResponse<?> response) {
+        return response.headers().firstValue("Retry-After")
+                .map(value -> {
+                    try {
+                        return Duration.ofSeconds(Math.min(Long.parseLong(value.trim()), 30));
+                    } catch (NumberFormatException e) {
+                        return RETRY_DELAY;
+                    }
+                })
+                .orElse(RETRY_DELAY);
+    }
 
-        return HttpRequest.BodyPublishers.ofByteArray(byteStream.toByteArray());
+    // 服务端的错误响应是 JSON，取其中的 message；没有时只显示状态码
+    private static String errorMessage(int status, InputStream body) {
+        if (status == 429) {
+            return "Сервер перегружен, попробуйте позже (HTTP 429)";
+        }
+        try {
+            JsonNode message = MAPPER.readTree(body).path("message");
+            if (message.isTextual() && !message.asText().isBlank()) {
+                return message.asText() + " (HTTP " + status + ")";
+            }
+        } catch (IOException ignored) {
+            // 响应不是 JSON
+        }
+        return "Ошибка сервера (HTTP " + status + ")";
     }
 }
@@ -0,0 +1,58 @@
+package com.example.myjavafx.service;
+
+import com.example.myjavafx.model.ErrorEntry;
+import com.example.myjavafx.model.ExportFormat;
+import com.example.myjavafx.model.ExportProgress;
+import com.example.myjavafx.model.PDFExporter;
+import com.example.myjavafx.model.TextExporter;
+import javafx.concurrent.Task;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+// 在后台线程导出报告，可取消并报告进度。
+// 先写到同目录的 .part 临时文件，成功后再替换目标文件；取消或失败时删除临时文件，原有文件保持不变
+public class ReportExportTask extends Task<Path> {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final List<ErrorEntry> errors;
+    private final ExportFormat format;
+    private final Path target;
+
+    public ReportExportTask(List<ErrorEntry> errors, ExportFormat format, Path target) {
+        this.errors = errors;
+        this.format = format;
+        this.target = target;
+    }
+
+    @Override
+    protected Path call() throws Exception {
+        Path part = target.resolveSibling(target.getFileName() + ".part");
+        ExportProgress progress = rows -> {
+            if (isCancelled()) {
+                throw new CancellationException();
+            }
+            updateProgress(rows, errors.size());
+            updateMessage(rows + " / " + errors.size());
+        };
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(part), BUFFER_SIZE)) {
+                switch (format) {
+                    case PDF -> PDFExporter.exportErrorsToPDF(errors, out, progress);
+                    case CSV -> TextExporter.exportErrorsToCSV(errors, out, progress);
+                    case NDJSON -> TextExporter.exportErrorsToNDJSON(errors, out, progress);
+                }
+            }
+            return Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+        } catch (Exception e) {
+            Files.deleteIfExists(part);
+            throw e;
+        }
+    }
+}
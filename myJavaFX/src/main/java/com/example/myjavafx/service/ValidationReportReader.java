@@ -0,0 +1,108 @@
+package com.example.myjavafx.service;
+
+import com.example.myjavafx.model.ErrorEntry;
+import com.example.myjavafx.model.ValidationReport;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// 用 Jackson 的流式 API 直接把服务端响应读成 ValidationReport，不构建 JsonNode 树。
+// 同一类错误的 code、message、suggestion 大量重复，解析时去重，只保留一份字符串
+public class ValidationReportReader {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    public static ValidationReport read(InputStream in) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(in)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+
+            List<ErrorEntry> errors = new ArrayList<>();
+            Map<String, Long> errorTypeCount = new LinkedHashMap<>();
+            int[] totals = new int[2];
+            boolean lowerBound = false;
+            Map<String, String> strings = new HashMap<>();
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("messages".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        errors.add(readMessage(parser, strings));
+                    }
+                } else if ("stats".equals(field) && value == JsonToken.START_OBJECT) {
+                    lowerBound = readStats(parser, errorTypeCount, totals);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return new ValidationReport(errors, errorTypeCount, totals[0], totals[1], lowerBound);
+        }
+    }
+
+    private static ErrorEntry readMessage(JsonParser parser, Map<String, String> strings) throws IOException {
+        String code = null;
+        String message = null;
+        String suggestion = null;
+        String content = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "code" -> code = dedup(strings, parser.getValueAsString());
+                case "message" -> message = dedup(strings, parser.getValueAsString());
+                case "suggestion" -> suggestion = dedup(strings, parser.getValueAsString());
+                // 片段基本不重复，不去重
+                case "content" -> content = parser.getValueAsString();
+                default -> parser.skipChildren();
+            }
+        }
+        return new ErrorEntry(code, message, suggestion, content);
+    }
+
+    // 返回 lowerBound；totals[0] 为段落数，totals[1] 为错误数
+    private static boolean readStats(JsonParser parser, Map<String, Long> errorTypeCount, int[] totals) throws IOException {
+        boolean lowerBound = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "errorTypeCount" -> {
+                    if (value != JsonToken.START_OBJECT) {
+                        parser.skipChildren();
+                        break;
+                    }
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String code = parser.getCurrentName();
+                        parser.nextToken();
+                        errorTypeCount.put(code, parser.getValueAsLong());
+                    }
+                }
+                case "totalParagraphs" -> totals[0] = parser.getValueAsInt();
+                case "totalErrors" -> totals[1] = parser.getValueAsInt();
+                case "lowerBound" -> lowerBound = parser.getValueAsBoolean();
+                default -> parser.skipChildren();
+            }
+        }
+        return lowerBound;
+    }
+
+    private static String dedup(Map<String, String> strings, String value) {
+        if (value == null) return null;
+        String existing = strings.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Неверный формат ответа сервера: ожидалось " + expected + ", получено " + actual);
+        }
+    }
+}